@@ -0,0 +1,105 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.BlockDelta;
+import nl.scoutcraft.hangman.PlacementBackend;
+import org.bukkit.block.data.BlockData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures building a delta, sorting it by chunk section and placing it with every placement
+ * backend into an in-memory world. The origin is not aligned to a chunk, so a stage spans several
+ * chunks and sections like it does in the lobby.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockDeltaBenchmark {
+
+    private static final int O_X = 1000, O_Y = 60, O_Z = -997;
+
+    // The amount of changed blocks, a guess changes a few hundred, a reset a few thousand.
+    @Param({"256", "4096"})
+    private int blocks;
+
+    @Param({"per-block", "no-physics", "section"})
+    private String backendName;
+
+    private int[] positions;
+    private BlockData[] blockData;
+    private BlockDelta delta;
+    private PlacementBackend backend;
+    private BlockDelta prepared;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42L);
+        BlockData[] palette = new BlockData[8];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = StubBlockData.of("minecraft:block_" + i);
+        }
+        this.positions = new int[this.blocks * 3];
+        this.blockData = new BlockData[this.blocks];
+        this.delta = new BlockDelta();
+        for (int i = 0; i < this.blocks; i++) {
+            this.positions[i * 3] = random.nextInt(40);
+            this.positions[i * 3 + 1] = random.nextInt(40);
+            this.positions[i * 3 + 2] = random.nextInt(40);
+            this.blockData[i] = palette[random.nextInt(palette.length)];
+            this.delta.add(this.positions[i * 3], this.positions[i * 3 + 1], this.positions[i * 3 + 2], this.blockData[i]);
+        }
+        this.backend = PlacementBackend.of(this.backendName);
+        this.prepared = this.backend.prepare(this.delta, O_X, O_Y, O_Z);
+    }
+
+    /**
+     * It's the world the delta is placed in, it's emptied before every placement so every block is
+     * set again.
+     */
+    @State(Scope.Thread)
+    public static class Target {
+
+        private final StubWorld world = new StubWorld();
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            this.world.clear();
+        }
+    }
+
+    @Benchmark
+    public BlockDelta add() {
+        BlockDelta delta = new BlockDelta();
+        for (int i = 0; i < this.blocks; i++) {
+            delta.add(this.positions[i * 3], this.positions[i * 3 + 1], this.positions[i * 3 + 2], this.blockData[i]);
+        }
+        return delta;
+    }
+
+    @Benchmark
+    public BlockDelta prepare() {
+        return this.backend.prepare(this.delta, O_X, O_Y, O_Z);
+    }
+
+    @Benchmark
+    public long place(Target target) {
+        this.backend.place(target.world.getWorld(), O_X, O_Y, O_Z, this.prepared, 0, this.prepared.size());
+        return target.world.getWrites();
+    }
+}
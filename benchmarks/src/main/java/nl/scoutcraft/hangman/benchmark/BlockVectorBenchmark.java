@@ -0,0 +1,125 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import com.google.gson.JsonObject;
+import nl.scoutcraft.hangman.BlockDelta;
+import nl.scoutcraft.hangman.BlockPlacementScheduler;
+import nl.scoutcraft.hangman.BlockVector;
+import nl.scoutcraft.hangman.JsonUtil;
+import nl.scoutcraft.hangman.MetricsRegistry;
+import nl.scoutcraft.hangman.PlacementBackend;
+import nl.scoutcraft.hangman.PlacementPriority;
+import nl.scoutcraft.hangman.StructureCodec;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures loading and saving a stage, the deltas between stages and building a stage through
+ * the placement scheduler into an in-memory world, which is what BlockVector.build queues.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockVectorBenchmark {
+
+    // The edge of the cube, 16 is about the size of a stage in the lobby.
+    @Param({"8", "16"})
+    private int size;
+
+    @Param({"per-block", "no-physics", "section"})
+    private String backendName;
+
+    private Location origin;
+    private JsonObject json;
+    private BlockVector stage;
+    private BlockVector nextStage;
+    private PlacementBackend backend;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StubWorld world = StubServer.install();
+        this.origin = new Location(world.getWorld(), 1000.0, 60.0, -997.0);
+        this.json = this.stageJson(new Random(42L));
+        this.stage = new BlockVector(this.origin, this.json);
+        this.nextStage = new BlockVector(this.origin, this.stageJson(new Random(43L)));
+        this.backend = PlacementBackend.of(this.backendName);
+    }
+
+    private JsonObject stageJson(Random random) {
+        String[] palette = new String[8];
+        palette[0] = "";
+        for (int i = 1; i < palette.length; i++) {
+            palette[i] = "minecraft:block_" + i;
+        }
+        int[] indices = new int[this.size * this.size * this.size];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(4) == 0 ? random.nextInt(palette.length) : 0;
+        }
+        Location far = this.origin.clone().add(this.size - 1, this.size - 1, this.size - 1);
+        JsonObject json = new JsonObject();
+        json.addProperty("locA", JsonUtil.locationToString(this.origin));
+        json.addProperty("locB", JsonUtil.locationToString(far));
+        json.addProperty("saveAir", false);
+        json.addProperty("origin", JsonUtil.locationToString(this.origin));
+        json.addProperty("format", StructureCodec.VERSION);
+        json.addProperty("structure", StructureCodec.encode(new StructureCodec.Structure(this.size, this.size, this.size, palette, indices)));
+        return json;
+    }
+
+    /**
+     * It's the world and scheduler a stage is built with, the world is emptied before every build.
+     */
+    @State(Scope.Thread)
+    public static class Target {
+
+        private StubWorld world;
+        private BlockPlacementScheduler scheduler;
+
+        @Setup(Level.Invocation)
+        public void clear(BlockVectorBenchmark benchmark) {
+            if (this.world == null) {
+                this.world = StubServer.install();
+                this.scheduler = new BlockPlacementScheduler(Integer.MAX_VALUE, Long.MAX_VALUE, benchmark.backend, new MetricsRegistry(null));
+            }
+            this.world.clear();
+        }
+    }
+
+    @Benchmark
+    public BlockVector deserialize() {
+        return new BlockVector(this.origin, this.json);
+    }
+
+    @Benchmark
+    public JsonObject serialize() {
+        return this.stage.serialize();
+    }
+
+    @Benchmark
+    public BlockDelta deltaTo() {
+        return this.stage.deltaTo(this.nextStage);
+    }
+
+    @Benchmark
+    public long build(Target target) {
+        target.scheduler.schedule(this, this.stage.toDelta(), this.origin, PlacementPriority.COSMETIC, null);
+        target.scheduler.flush();
+        return target.world.getWrites();
+    }
+}
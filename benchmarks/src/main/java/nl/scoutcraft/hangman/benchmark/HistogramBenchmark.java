@@ -0,0 +1,47 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the cost of recording a duration, which is added to every guess, click and build, on
+ * one thread and with several threads recording into the same histogram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistogramBenchmark {
+
+    private final Histogram histogram = new Histogram("benchmark", "-");
+
+    @Benchmark
+    public void record() {
+        this.histogram.record(ThreadLocalRandom.current().nextLong(1_000L, 10_000_000L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        this.histogram.record(ThreadLocalRandom.current().nextLong(1_000L, 10_000_000L));
+    }
+
+    @Benchmark
+    public long quantile() {
+        return this.histogram.getQuantile(0.99);
+    }
+}
@@ -0,0 +1,74 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.JsonUtil;
+import org.bukkit.Location;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the conversions of locations, vectors and block data to and from strings, which run
+ * for every structure and letterboard that is loaded or saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+
+    private Location location;
+    private String locationString;
+    private Vector vector;
+    private String vectorString;
+    private String blockDataString;
+
+    @Setup
+    public void setup() {
+        StubWorld world = StubServer.install();
+        this.location = new Location(world.getWorld(), 21.0, 22.0, -145.0, 90.0f, 0.0f);
+        this.locationString = JsonUtil.locationToString(this.location);
+        this.vector = new Vector(0.0, 1.0, 12.0);
+        this.vectorString = JsonUtil.vectorToString(this.vector);
+        this.blockDataString = "minecraft:oak_stairs[facing=north,half=bottom,shape=straight,waterlogged=false]";
+        JsonUtil.stringToBlockData(this.blockDataString);
+    }
+
+    @Benchmark
+    public String locationToString() {
+        return JsonUtil.locationToString(this.location);
+    }
+
+    @Benchmark
+    public Location stringToLocation() {
+        return JsonUtil.stringToLocation(this.locationString);
+    }
+
+    @Benchmark
+    public String vectorToString() {
+        return JsonUtil.vectorToString(this.vector);
+    }
+
+    @Benchmark
+    public Vector stringToVector() {
+        return JsonUtil.stringToVector(this.vectorString);
+    }
+
+    // A pooled string, like every palette entry after the first stage that uses it.
+    @Benchmark
+    public BlockData stringToBlockData() {
+        return JsonUtil.stringToBlockData(this.blockDataString);
+    }
+}
@@ -0,0 +1,85 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.LetterBoard;
+import nl.scoutcraft.hangman.LocationVector;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the letter block lookup that runs for every click near a letterboard, for a letter
+ * block, another block in the same chunk and a block in another chunk, and building the index of a
+ * letterboard.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LetterBoardBenchmark {
+
+    private static final int LETTERS = 12;
+
+    private Location origin;
+    private Location[] letterLocations;
+    private LetterBoard letterBoard;
+    private Block letter;
+    private Block sameChunk;
+    private Block otherChunk;
+
+    @Setup
+    public void setup() throws InstantiationException {
+        World world = StubServer.install().getWorld();
+        this.origin = new Location(world, 21.0, 22.0, -145.0);
+        this.letterLocations = new Location[LETTERS];
+        for (int i = 0; i < LETTERS; i++) {
+            this.letterLocations[i] = new Location(world, 21.0, 23.0, -145.0 + i);
+        }
+        this.letterBoard = new LetterBoard(this.origin);
+        for (Location location : this.letterLocations) {
+            this.letterBoard.addLocationVector(location);
+        }
+        this.letter = world.getBlockAt(21, 23, -140);
+        this.sameChunk = world.getBlockAt(22, 23, -140);
+        this.otherChunk = world.getBlockAt(200, 23, -140);
+        this.letterBoard.isLetter(this.letter);
+    }
+
+    @Benchmark
+    public boolean isLetterHit() {
+        return this.letterBoard.isLetter(this.letter);
+    }
+
+    @Benchmark
+    public boolean isLetterSameChunk() {
+        return this.letterBoard.isLetter(this.sameChunk);
+    }
+
+    @Benchmark
+    public boolean isLetterOtherChunk() {
+        return this.letterBoard.isLetter(this.otherChunk);
+    }
+
+    // Creating a board and looking a block up, which builds the index of the board.
+    @Benchmark
+    public int addAndIndex() {
+        LocationVector locationVector = new LocationVector(this.origin);
+        for (Location location : this.letterLocations) {
+            locationVector.addLocationVector(location);
+        }
+        return locationVector.indexOf(this.letter);
+    }
+}
@@ -0,0 +1,78 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.LongIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the chunk-keyed map that is looked up for every block a player clicks and every chunk
+ * a player moves into.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongIntMapBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int entries;
+
+    private LongIntMap map;
+    private long[] hits;
+    private long[] misses;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        this.map = new LongIntMap();
+        this.hits = new long[this.entries];
+        this.misses = new long[this.entries];
+        for (int i = 0; i < this.entries; i++) {
+            // Keys like Chunk.getChunkKey: z in the high half, x in the low half.
+            long key = ((long) random.nextInt(2048) << 32) | (random.nextInt(2048) & 0xFFFFFFFFL);
+            this.map.put(key, i);
+            this.hits[i] = key;
+            this.misses[i] = key | (1L << 62);
+        }
+        this.cursor = 0;
+    }
+
+    private int next() {
+        this.cursor = this.cursor + 1 == this.entries ? 0 : this.cursor + 1;
+        return this.cursor;
+    }
+
+    @Benchmark
+    public int getHit() {
+        return this.map.get(this.hits[this.next()]);
+    }
+
+    @Benchmark
+    public int getMiss() {
+        return this.map.get(this.misses[this.next()]);
+    }
+
+    @Benchmark
+    public LongIntMap fill() {
+        LongIntMap map = new LongIntMap();
+        for (int i = 0; i < this.hits.length; i++) {
+            map.put(this.hits[i], i);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,80 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.StructureCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures encoding and decoding of a stage in the binary structure format, which happens for
+ * every stage when the plugin loads and for every save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructureCodecBenchmark {
+
+    // The edge of the cube, 16 is about the size of a stage in the lobby.
+    @Param({"8", "16", "32"})
+    private int size;
+
+    @Param({"4", "40"})
+    private int paletteSize;
+
+    private StructureCodec.Structure structure;
+    private byte[] bytes;
+    private String string;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        String[] palette = new String[this.paletteSize];
+        palette[0] = "";
+        for (int i = 1; i < palette.length; i++) {
+            palette[i] = "minecraft:block_" + i + "[facing=north,waterlogged=false]";
+        }
+        int[] indices = new int[this.size * this.size * this.size];
+        for (int i = 0; i < indices.length; i++) {
+            // Most cells of a stage are air, the rest is a few blocks.
+            indices[i] = random.nextInt(4) == 0 ? random.nextInt(this.paletteSize) : 0;
+        }
+        this.structure = new StructureCodec.Structure(this.size, this.size, this.size, palette, indices);
+        this.bytes = StructureCodec.encodeBytes(this.structure);
+        this.string = StructureCodec.encode(this.structure);
+    }
+
+    @Benchmark
+    public byte[] encodeBytes() {
+        return StructureCodec.encodeBytes(this.structure);
+    }
+
+    @Benchmark
+    public StructureCodec.Structure decodeBytes() throws IOException {
+        return StructureCodec.decodeBytes(this.bytes, "benchmark");
+    }
+
+    @Benchmark
+    public String encode() {
+        return StructureCodec.encode(this.structure);
+    }
+
+    @Benchmark
+    public StructureCodec.Structure decode() throws IOException {
+        return StructureCodec.decode(this.string, "benchmark");
+    }
+}
@@ -0,0 +1,39 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * It's an in-memory stand-in for block data, so code that only passes block data around can be
+ * measured without a server. Block data with the same string is the same instance, like the pooled
+ * block data of the plugin.
+ */
+public final class StubBlockData {
+
+    private static final ConcurrentHashMap<String, BlockData> POOL = new ConcurrentHashMap<>();
+
+    private StubBlockData() {
+    }
+
+    /**
+     * Returns the stand-in block data for a block data string.
+     *
+     * @param string The block data string, like "minecraft:stone".
+     * @return The block data.
+     */
+    public static BlockData of(String string) {
+        return POOL.computeIfAbsent(string, StubBlockData::create);
+    }
+
+    private static BlockData create(String string) {
+        return (BlockData) Proxy.newProxyInstance(BlockData.class.getClassLoader(), new Class<?>[]{BlockData.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> string.hashCode();
+            case "toString", "getAsString" -> string;
+            case "clone" -> proxy;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
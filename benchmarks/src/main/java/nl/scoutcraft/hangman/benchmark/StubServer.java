@@ -0,0 +1,52 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * It's a stand-in for the server, installed with {@link Bukkit#setServer(Server)}, so code that looks
+ * worlds up or parses block data through Bukkit can be measured without a server. It knows one
+ * world and parses block data into {@link StubBlockData}.
+ */
+public final class StubServer {
+
+    private static StubWorld world;
+
+    private StubServer() {
+    }
+
+    /**
+     * Returns the world of the server, the server is installed the first time this is called.
+     *
+     * @return The world.
+     */
+    public static synchronized StubWorld install() {
+        if (world != null) return world;
+        world = new StubWorld();
+        Logger logger = Logger.getLogger("StubServer");
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getName" -> "StubServer";
+            case "getVersion", "getBukkitVersion" -> "benchmark";
+            case "getWorld" -> args[0].equals(world.getWorld().getName()) || args[0].equals(world.getWorld().getUID()) ? world.getWorld() : null;
+            case "getWorlds" -> List.<World>of(world.getWorld());
+            case "createBlockData" -> args.length == 1 && args[0] instanceof String string ? StubBlockData.of(string) : unsupported(method.getName());
+            case "isPrimaryThread" -> true;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "StubServer";
+            default -> unsupported(method.getName());
+        });
+        Bukkit.setServer(server);
+        return world;
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException(method);
+    }
+}
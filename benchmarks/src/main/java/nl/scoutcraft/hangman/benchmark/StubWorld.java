@@ -0,0 +1,103 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * It's an in-memory stand-in for a world that only knows the block data of its blocks, so the
+ * placement backends can be measured without a server. Like a real world, a block and a chunk are
+ * new objects every time they are looked up.
+ */
+public final class StubWorld {
+
+    private static final BlockData AIR = StubBlockData.of("minecraft:air");
+
+    private final UUID uid;
+    private final HashMap<Long, BlockData> blocks;
+    private final World world;
+    private long writes;
+
+    public StubWorld() {
+        this.uid = UUID.randomUUID();
+        this.blocks = new HashMap<>();
+        this.world = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getBlockAt" -> this.block((int) args[0], (int) args[1], (int) args[2]);
+            case "getChunkAt" -> this.chunk((int) args[0], (int) args[1]);
+            case "getUID" -> this.uid;
+            case "getName" -> "stub";
+            case "getMinHeight" -> -64;
+            case "getMaxHeight" -> 320;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "StubWorld";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        this.writes = 0L;
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private Block block(int x, int y, int z) {
+        return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[]{Block.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getBlockData" -> this.blocks.getOrDefault(key(x, y, z), AIR);
+            case "setBlockData" -> {
+                this.blocks.put(key(x, y, z), (BlockData) args[0]);
+                this.writes++;
+                yield null;
+            }
+            case "getX" -> x;
+            case "getY" -> y;
+            case "getZ" -> z;
+            case "getWorld" -> this.world;
+            case "getLocation" -> {
+                if (args != null) throw new UnsupportedOperationException("getLocation(Location)");
+                yield new Location(this.world, x, y, z);
+            }
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> Long.hashCode(key(x, y, z));
+            case "toString" -> "StubBlock{" + x + "," + y + "," + z + "}";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private Chunk chunk(int chunkX, int chunkZ) {
+        return (Chunk) Proxy.newProxyInstance(Chunk.class.getClassLoader(), new Class<?>[]{Chunk.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getBlock" -> this.block((chunkX << 4) | (int) args[0], (int) args[1], (chunkZ << 4) | (int) args[2]);
+            case "getX" -> chunkX;
+            case "getZ" -> chunkZ;
+            case "getWorld" -> this.world;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "StubChunk{" + chunkX + "," + chunkZ + "}";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    public World getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Returns the amount of blocks that were set, so a benchmark can check a backend skipped the
+     * blocks that were already right.
+     *
+     * @return The amount of writes.
+     */
+    public long getWrites() {
+        return this.writes;
+    }
+
+    public void clear() {
+        this.blocks.clear();
+        this.writes = 0L;
+    }
+}
@@ -0,0 +1,98 @@
+package nl.scoutcraft.hangman.benchmark;
+
+import nl.scoutcraft.hangman.WordStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures drawing the next word, from the words of the config and from a compiled word file, and
+ * compiling a word file, which happens once when a large dictionary changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordStoreBenchmark {
+
+    private static final int LENGTH = 8;
+
+    @Param({"100", "100000"})
+    private int words;
+
+    private File directory;
+    private File source;
+    private WordStore.ShuffleBag configBag;
+    private WordStore.ShuffleBag fileBag;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(42L);
+        List<String> list = new ArrayList<>(this.words);
+        for (int i = 0; i < this.words; i++) {
+            char[] chars = new char[LENGTH];
+            for (int j = 0; j < LENGTH; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            list.add(new String(chars));
+        }
+        this.directory = Files.createTempDirectory("hangman-words").toFile();
+        this.source = new File(this.directory, "words.txt");
+        Files.write(this.source.toPath(), list, StandardCharsets.UTF_8);
+
+        this.configBag = WordStore.of(list).shuffleBag(LENGTH);
+        this.fileBag = WordStore.of(Collections.emptyList(), this.source).shuffleBag(LENGTH);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        this.directory.delete();
+    }
+
+    @Benchmark
+    public String nextFromConfig() {
+        return this.configBag.next();
+    }
+
+    @Benchmark
+    public String nextFromFile() {
+        return this.fileBag.next();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public File compile() throws IOException {
+        File target = new File(this.directory, "compiled.hmw");
+        WordStore.compile(this.source, target);
+        return target;
+    }
+}
@@ -0,0 +1,210 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import nl.scoutcraft.hangman.ArenaDefinition;
+import nl.scoutcraft.hangman.ArenaRegistry;
+import nl.scoutcraft.hangman.HangmanGame;
+import nl.scoutcraft.hangman.Histogram;
+import nl.scoutcraft.hangman.LetterMenu;
+import nl.scoutcraft.hangman.Main;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * It plays hangman with a few thousand synthetic players on a MockBukkit server, to reproduce the
+ * load of a lobby during a peak event without a live server. Every tick a number of random players
+ * click a random letter block of their arena, and every click that opens the letter menu is followed
+ * by a click on a random letter, which makes a guess. Games that are won or lost reset themselves like
+ * they do on a server, and every arena is also reset by hand now and then.
+ *
+ * The players act one after the other on one thread, like the events of a server do on its main
+ * thread, so this measures the cost per tick of many players in many arenas, not contention between
+ * threads. Cooldowns are in ticks, so they expire as the simulated ticks go by. The calls MockBukkit
+ * doesn't implement go to the stand-ins of {@link SimulatedServer}.
+ *
+ * Options, all optional: --arenas 20 --players 2000 --ticks 1200 --actions 200 --resetEvery 600
+ * --seed 42
+ */
+public final class LoadSimulation {
+
+    // Arenas are this many blocks apart, so no two letterboards share a chunk.
+    private static final int ARENA_SPACING = 64;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+    private final int arenaCount;
+    private final int playerCount;
+    private final int ticks;
+    private final int actionsPerTick;
+    private final int resetEvery;
+    private final Random random;
+
+    private final Histogram clickTimer;
+    private final Histogram guessTimer;
+    private final Histogram resetTimer;
+    private final Histogram tickTimer;
+
+    private final List<HangmanGame> games;
+    private final List<PlayerMock> players;
+    private final Map<PlayerMock, HangmanGame> arenaOf;
+
+    private SimulatedServer server;
+    private Main plugin;
+
+    private LoadSimulation(Map<String, String> options) {
+        this.arenaCount = Integer.parseInt(options.getOrDefault("arenas", "20"));
+        this.playerCount = Integer.parseInt(options.getOrDefault("players", "2000"));
+        this.ticks = Integer.parseInt(options.getOrDefault("ticks", "1200"));
+        this.actionsPerTick = Integer.parseInt(options.getOrDefault("actions", "200"));
+        this.resetEvery = Integer.parseInt(options.getOrDefault("resetEvery", "600"));
+        this.random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+        this.clickTimer = new Histogram("click_letter", "simulation");
+        this.guessTimer = new Histogram("menu_guess", "simulation");
+        this.resetTimer = new Histogram("reset", "simulation");
+        this.tickTimer = new Histogram("tick", "simulation");
+        this.games = new ArrayList<>();
+        this.players = new ArrayList<>();
+        this.arenaOf = new HashMap<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        LoadSimulation simulation = new LoadSimulation(options);
+        try {
+            simulation.setUp();
+            simulation.run();
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    /**
+     * It starts the server and the plugin, adds the arenas next to the one of the default config and
+     * spreads the players over them.
+     */
+    private void setUp() throws Exception {
+        this.server = MockBukkit.mock(new SimulatedServer());
+        // The default config has its arena in the world "lobby", the saved world UUIDs don't exist here.
+        SimulatedWorld world = this.server.addSimulatedWorld("lobby");
+        MockBukkit.createMockPlugin("EagleServer");
+        this.plugin = MockBukkit.load(Main.class);
+
+        ArenaRegistry registry = this.plugin.getArenaRegistry();
+        long deadline = System.currentTimeMillis() + 30_000L;
+        while (registry.getArena("default") == null) {
+            if (System.currentTimeMillis() > deadline) throw new IllegalStateException("The default arena didn't load");
+            Thread.sleep(10L);
+            this.server.getScheduler().performOneTick();
+        }
+        this.games.add(registry.getArena("default"));
+
+        ConfigurationSection config = this.plugin.getConfig();
+        for (int i = 1; i < this.arenaCount; i++) {
+            MemoryConfiguration section = new MemoryConfiguration();
+            for (String key : new String[]{"world", "y", "z", "maxGuesses", "wordList", "wordFile", "letterBoard", "stages"}) {
+                if (config.contains(key)) section.set(key, config.get(key));
+            }
+            section.set("x", config.getInt("x") + i * ARENA_SPACING);
+            ArenaDefinition definition = ArenaDefinition.read("arena-" + i, section).parse(Runnable::run).join();
+            HangmanGame game = new HangmanGame(definition);
+            registry.register(game);
+            this.games.add(game);
+        }
+        // Let the first stages and letterboards be built.
+        this.server.getScheduler().performTicks(200L);
+
+        for (int i = 0; i < this.playerCount; i++) {
+            PlayerMock player = this.server.addPlayer();
+            HangmanGame game = this.games.get(i % this.games.size());
+            Location board = game.getLetterBoard().getBlock(0).getLocation();
+            player.teleport(new Location(world, board.getX() + this.random.nextInt(9) - 4, board.getY(), board.getZ() + this.random.nextInt(9) - 4));
+            this.arenaOf.put(player, game);
+            this.players.add(player);
+        }
+        // The proximity tracker picks players up a second after they joined or teleported.
+        this.server.getScheduler().performTicks(40L);
+    }
+
+    private void run() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long actions = 0L;
+
+        for (int tick = 1; tick <= this.ticks; tick++) {
+            for (int i = 0; i < this.actionsPerTick; i++) {
+                this.act(this.players.get(this.random.nextInt(this.players.size())));
+                actions++;
+            }
+            if (this.resetEvery > 0 && tick % this.resetEvery == 0) {
+                for (HangmanGame game : this.games) {
+                    long resetStart = System.nanoTime();
+                    game.reset();
+                    this.resetTimer.recordSince(resetStart);
+                }
+            }
+            long tickStart = System.nanoTime();
+            this.server.getScheduler().performOneTick();
+            this.tickTimer.recordSince(tickStart);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        this.report(elapsed, actions, allocated);
+    }
+
+    /**
+     * It lets a player click a random letter block of their arena, and if that opened the letter menu,
+     * click a random letter in it.
+     *
+     * @param player The player.
+     */
+    private void act(PlayerMock player) {
+        HangmanGame game = this.arenaOf.get(player);
+        Block block = game.getLetterBoard().getBlock(this.random.nextInt(game.getLetterBoard().getLocationVectors().length));
+        PlayerInteractEvent event = new PlayerInteractEvent(player, Action.RIGHT_CLICK_BLOCK, null, block, BlockFace.UP);
+
+        long clickStart = System.nanoTime();
+        this.plugin.getArenaRegistry().onClickLetter(event);
+        this.clickTimer.recordSince(clickStart);
+
+        InventoryHolder holder = player.getOpenInventory().getTopInventory().getHolder();
+        if (!(holder instanceof LetterMenu menu)) return;
+        long guessStart = System.nanoTime();
+        menu.onClick(player, this.random.nextInt(LetterMenu.LETTERS.length));
+        this.guessTimer.recordSince(guessStart);
+    }
+
+    private void report(long elapsedNanos, long actions, long allocatedBytes) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%d arenas, %d players, %d ticks, %d actions per tick%n", this.arenaCount, this.playerCount, this.ticks, this.actionsPerTick);
+        System.out.printf("%.2f s, %.0f actions/s, %.1f ticks/s%n", seconds, actions / seconds, this.ticks / seconds);
+        System.out.printf("allocated %.1f MB, %.1f MB/s, %.0f bytes per action%n", allocatedBytes / 1e6, allocatedBytes / 1e6 / seconds, (double) allocatedBytes / Math.max(1L, actions));
+        for (Histogram histogram : new Histogram[]{this.clickTimer, this.guessTimer, this.resetTimer, this.tickTimer}) {
+            StringBuilder line = new StringBuilder(String.format("%-13s n=%-9d", histogram.getName(), histogram.getCount()));
+            for (int i = 0; i < QUANTILES.length; i++) {
+                line.append(String.format(" %s=%.1fus", QUANTILE_NAMES[i], histogram.getQuantile(QUANTILES[i]) / 1e3));
+            }
+            line.append(String.format(" max=%.1fus", histogram.getMax() / 1e3));
+            System.out.println(line);
+        }
+    }
+}
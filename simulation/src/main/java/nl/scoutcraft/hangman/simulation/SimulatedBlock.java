@@ -0,0 +1,56 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.block.BlockMock;
+import com.destroystokyo.paper.profile.PlayerProfile;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Skull;
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * It's a MockBukkit block that can be placed without physics and that has a skull state when it's a
+ * player head, MockBukkit has neither. The skull only keeps its profile, which is enough to show the
+ * letters of a letterboard.
+ */
+public class SimulatedBlock extends BlockMock {
+
+    private PlayerProfile profile;
+
+    public SimulatedBlock(Location location) {
+        super(location);
+    }
+
+    // There is no physics in the simulation, so placing with or without it is the same.
+    @Override
+    public void setBlockData(BlockData data, boolean applyPhysics) {
+        this.setBlockData(data);
+    }
+
+    @Override
+    public BlockState getState() {
+        if (this.getType() != Material.PLAYER_HEAD && this.getType() != Material.PLAYER_WALL_HEAD) return super.getState();
+        return (Skull) Proxy.newProxyInstance(Skull.class.getClassLoader(), new Class<?>[]{Skull.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "setPlayerProfile" -> {
+                this.profile = (PlayerProfile) args[0];
+                yield null;
+            }
+            case "getPlayerProfile" -> this.profile;
+            case "hasOwner" -> this.profile != null;
+            case "update" -> true;
+            case "getBlock" -> this;
+            case "getType" -> this.getType();
+            case "getBlockData" -> this.getBlockData();
+            case "getWorld" -> this.getWorld();
+            case "getX" -> this.getX();
+            case "getY" -> this.getY();
+            case "getZ" -> this.getZ();
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "SimulatedSkull" + this.getLocation();
+            default -> throw new UnsupportedOperationException("Skull." + method.getName() + " is not simulated");
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.block.data.BlockDataMock;
+import org.bukkit.Material;
+
+/**
+ * It's block data that remembers the string it was created from, MockBukkit's block data only
+ * knows its material.
+ */
+public class SimulatedBlockData extends BlockDataMock {
+
+    private final String string;
+
+    public SimulatedBlockData(Material material, String string) {
+        super(material);
+        this.string = string;
+    }
+
+    @Override
+    public String getAsString() {
+        return this.string;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof SimulatedBlockData other) return this.string.equals(other.string);
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.string.hashCode();
+    }
+}
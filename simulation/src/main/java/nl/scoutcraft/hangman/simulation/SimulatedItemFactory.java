@@ -0,0 +1,89 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.inventory.ItemFactoryMock;
+import be.seeseemelk.mockbukkit.inventory.meta.ItemMetaMock;
+import be.seeseemelk.mockbukkit.inventory.meta.SkullMetaMock;
+import com.destroystokyo.paper.profile.PlayerProfile;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * It's a MockBukkit item factory whose plain and skull metas take a name as a component, and whose
+ * skull metas take a profile, MockBukkit implements neither.
+ */
+public class SimulatedItemFactory extends ItemFactoryMock {
+
+    @Override
+    public ItemMeta getItemMeta(Material material) {
+        ItemMeta meta = super.getItemMeta(material);
+        if (meta instanceof SkullMetaMock) return new SimulatedSkullMeta();
+        if (meta != null && meta.getClass() == ItemMetaMock.class) return new SimulatedItemMeta();
+        return meta;
+    }
+
+    // MockBukkit copies a meta into its own class here, which would lose the stand-ins.
+    @Override
+    public ItemMeta asMetaFor(ItemMeta meta, ItemStack stack) {
+        return this.asMetaFor(meta, stack.getType());
+    }
+
+    @Override
+    public ItemMeta asMetaFor(ItemMeta meta, Material material) {
+        if (meta instanceof SimulatedItemMeta || meta instanceof SimulatedSkullMeta) return meta.clone();
+        return super.asMetaFor(meta, material);
+    }
+
+    private static Component name(ItemMeta meta) {
+        return meta.hasDisplayName() ? Component.text(meta.getDisplayName()) : null;
+    }
+
+    private static String plain(Component name) {
+        return name == null ? null : PlainTextComponentSerializer.plainText().serialize(name);
+    }
+
+    public static class SimulatedItemMeta extends ItemMetaMock {
+
+        @Override
+        public Component displayName() {
+            return name(this);
+        }
+
+        @Override
+        public void displayName(Component name) {
+            this.setDisplayName(plain(name));
+        }
+    }
+
+    public static class SimulatedSkullMeta extends SkullMetaMock {
+
+        private PlayerProfile profile;
+
+        @Override
+        public Component displayName() {
+            return name(this);
+        }
+
+        @Override
+        public void displayName(Component name) {
+            this.setDisplayName(plain(name));
+        }
+
+        @Override
+        public PlayerProfile getPlayerProfile() {
+            return this.profile;
+        }
+
+        @Override
+        public void setPlayerProfile(PlayerProfile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean hasOwner() {
+            return this.profile != null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.ServerMock;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+
+/**
+ * It's a MockBukkit server with stand-ins for the calls of the plugin that MockBukkit doesn't
+ * implement and throws an UnimplementedOperationException for: the current tick, block data from a
+ * string, inventories with a component title and item names as components.
+ */
+public class SimulatedServer extends ServerMock {
+
+    private final SimulatedItemFactory itemFactory = new SimulatedItemFactory();
+
+    /**
+     * It adds an empty world whose blocks can hold letter heads and are placed with and without
+     * physics, see {@link SimulatedWorld}.
+     *
+     * @param name The name of the world.
+     * @return The world.
+     */
+    public SimulatedWorld addSimulatedWorld(String name) {
+        SimulatedWorld world = new SimulatedWorld();
+        world.setName(name);
+        this.addWorld(world);
+        return world;
+    }
+
+    // Cooldowns are in ticks, so they follow the ticks of the mock scheduler.
+    @Override
+    public int getCurrentTick() {
+        return (int) this.getScheduler().getCurrentTick();
+    }
+
+    /**
+     * Returns block data for a string like minecraft:oak_stairs[facing=north]. The block states are
+     * kept in the string only, two block data are equal if their strings are.
+     *
+     * @param data The block data string.
+     * @return The block data.
+     */
+    @Override
+    public BlockData createBlockData(String data) {
+        int states = data.indexOf('[');
+        Material material = Material.matchMaterial(states < 0 ? data : data.substring(0, states));
+        if (material == null) throw new IllegalArgumentException("Could not parse data: " + data);
+        return new SimulatedBlockData(material, data);
+    }
+
+    @Override
+    public Inventory createInventory(InventoryHolder owner, int size, Component title) {
+        return this.createInventory(owner, size, PlainTextComponentSerializer.plainText().serialize(title));
+    }
+
+    @Override
+    public ItemFactory getItemFactory() {
+        return this.itemFactory;
+    }
+}
@@ -0,0 +1,40 @@
+package nl.scoutcraft.hangman.simulation;
+
+import be.seeseemelk.mockbukkit.Coordinate;
+import be.seeseemelk.mockbukkit.WorldMock;
+import be.seeseemelk.mockbukkit.block.BlockMock;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+import java.util.HashMap;
+
+/**
+ * It's an empty MockBukkit world made of {@link SimulatedBlock}s, with the view distance of a
+ * default server.
+ */
+public class SimulatedWorld extends WorldMock {
+
+    private static final int VIEW_DISTANCE = 10;
+
+    private final HashMap<Long, SimulatedBlock> blocks = new HashMap<>();
+
+    @Override
+    public BlockMock getBlockAt(int x, int y, int z) {
+        return this.blocks.computeIfAbsent(Block.getBlockKey(x, y, z), key -> new SimulatedBlock(new Location(this, x, y, z)));
+    }
+
+    @Override
+    public BlockMock getBlockAt(Coordinate coordinate) {
+        return this.getBlockAt(coordinate.x, coordinate.y, coordinate.z);
+    }
+
+    @Override
+    public BlockMock getBlockAt(Location location) {
+        return this.getBlockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    @Override
+    public int getViewDistance() {
+        return VIEW_DISTANCE;
+    }
+}
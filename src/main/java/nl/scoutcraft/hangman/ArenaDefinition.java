@@ -0,0 +1,137 @@
+package nl.scoutcraft.hangman;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * It's the parsed config of an arena. It's read from the config on the main thread, parsed and
+ * validated on worker threads and then bound to the world by creating a HangmanGame.
+ */
+public class ArenaDefinition {
+
+    private final String name;
+    private final String world;
+    private final int x, y, z;
+    private final int maxGuesses;
+    private final List<String> wordList;
+    private final File wordFile;
+    private final String letterBoardString;
+    private final List<String> stageStrings;
+
+    private JsonObject letterBoard;
+    private JsonObject[] stages;
+    private StructureCodec.Structure[] stageStructures;
+    private WordStore wordStore;
+
+    private ArenaDefinition(String name, ConfigurationSection config) {
+        this.name = name;
+        this.world = config.getString("world", "");
+        this.x = config.getInt("x");
+        this.y = config.getInt("y");
+        this.z = config.getInt("z");
+        this.maxGuesses = config.getInt("maxGuesses", 4);
+        this.wordList = new ArrayList<>(config.getStringList("wordList"));
+        String wordFile = config.getString("wordFile");
+        this.wordFile = wordFile == null ? null : new File(Main.getInstance().getDataFolder(), wordFile);
+        this.letterBoardString = config.getString("letterBoard");
+        this.stageStrings = new ArrayList<>(config.getStringList("stages"));
+    }
+
+    /**
+     * It copies the values of an arena out of the config. This has to run on the main thread.
+     *
+     * @param name The name of the arena.
+     * @param config The config section of the arena.
+     * @return The definition, not parsed yet.
+     */
+    public static ArenaDefinition read(String name, ConfigurationSection config) {
+        return new ArenaDefinition(name, config);
+    }
+
+    /**
+     * It validates the definition and parses the letterboard and every stage in parallel on the
+     * executor.
+     *
+     * @param executor The executor to parse on.
+     * @return A future that completes with this definition once everything is parsed, or completes
+     * exceptionally with an InstantiationException if the arena is invalid.
+     */
+    public CompletableFuture<ArenaDefinition> parse(Executor executor) {
+        if (this.letterBoardString == null)
+            return CompletableFuture.failedFuture(new InstantiationException("Arena " + this.name + " has no letterboard!"));
+        if (this.maxGuesses > this.stageStrings.size())
+            return CompletableFuture.failedFuture(new InstantiationException("More guesses than stages in arena " + this.name + "!"));
+        this.stages = new JsonObject[this.stageStrings.size()];
+        this.stageStructures = new StructureCodec.Structure[this.stageStrings.size()];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[this.stageStrings.size() + 2];
+        futures[0] = CompletableFuture.runAsync(() -> this.letterBoard = JsonParser.parseString(this.letterBoardString).getAsJsonObject(), executor);
+        futures[1] = CompletableFuture.runAsync(() -> {
+            try {
+                this.wordStore = this.wordFile == null ? WordStore.of(this.wordList) : WordStore.of(this.wordList, this.wordFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+        for (int i = 0; i < this.stageStrings.size(); i++) {
+            int stage = i;
+            futures[i + 2] = CompletableFuture.runAsync(() -> {
+                this.stages[stage] = JsonParser.parseString(this.stageStrings.get(stage)).getAsJsonObject();
+                try {
+                    this.stageStructures[stage] = BlockVector.readStructure(this.stages[stage], "config.yml " + this.name + " stage " + stage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(futures).thenApply(v -> this);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getWorld() {
+        return this.world;
+    }
+
+    public int getX() {
+        return this.x;
+    }
+
+    public int getY() {
+        return this.y;
+    }
+
+    public int getZ() {
+        return this.z;
+    }
+
+    public int getMaxGuesses() {
+        return this.maxGuesses;
+    }
+
+    public WordStore getWordStore() {
+        return this.wordStore;
+    }
+
+    public JsonObject getLetterBoard() {
+        return this.letterBoard;
+    }
+
+    public JsonObject[] getStages() {
+        return this.stages;
+    }
+
+    public StructureCodec.Structure[] getStageStructures() {
+        return this.stageStructures;
+    }
+}
@@ -0,0 +1,160 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * It keeps all hangman arenas and routes events to them. Only one listener is registered, clicks
+ * are looked up by world and chunk so the cost of a click doesn't grow with the amount of arenas.
+ */
+public class ArenaRegistry implements Listener {
+
+    private final LinkedHashMap<String, HangmanGame> arenas;
+    private final HashMap<UUID, LongIntMap> chunkIndex;
+    private final List<HangmanGame[]> chunkBuckets;
+
+    public ArenaRegistry() {
+        this.arenas = new LinkedHashMap<>();
+        this.chunkIndex = new HashMap<>();
+        this.chunkBuckets = new ArrayList<>();
+    }
+
+    /**
+     * It loads an arena for every section under "arenas" in the config. If there is no such section,
+     * the root of the config is loaded as a single arena called "default". The arenas are parsed in
+     * parallel on worker threads and registered on the main thread once they are all parsed.
+     *
+     * @param config The root of the plugin config.
+     */
+    public void load(ConfigurationSection config) {
+        List<ArenaDefinition> definitions = new ArrayList<>();
+        ConfigurationSection arenasSection = config.getConfigurationSection("arenas");
+        if (arenasSection == null) {
+            definitions.add(ArenaDefinition.read("default", config));
+        } else {
+            for (String name : arenasSection.getKeys(false)) {
+                ConfigurationSection section = arenasSection.getConfigurationSection(name);
+                if (section != null) definitions.add(ArenaDefinition.read(name, section));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(definitions.size() * 2, Runtime.getRuntime().availableProcessors())));
+        CompletableFuture<?>[] futures = definitions.stream().map(definition -> definition.parse(pool)
+                .whenComplete((parsed, throwable) -> {
+                    if (throwable != null)
+                        Main.getInstance().getLogger().log(Level.SEVERE, "Could not load arena " + definition.getName(), throwable);
+                })).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).whenComplete((v, t) -> {
+            pool.shutdown();
+            if (!Main.getInstance().isEnabled()) return;
+            Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+                for (CompletableFuture<?> future : futures) {
+                    if (!future.isCompletedExceptionally()) this.bind((ArenaDefinition) future.join());
+                }
+            });
+        });
+    }
+
+    /**
+     * It creates the game of a parsed arena and registers it. This has to run on the main thread.
+     *
+     * @param definition The parsed arena.
+     */
+    private void bind(ArenaDefinition definition) {
+        try {
+            this.register(new HangmanGame(definition));
+        } catch (InstantiationException e) {
+            Main.getInstance().getLogger().log(Level.SEVERE, "Could not load arena " + definition.getName(), e);
+        }
+    }
+
+    /**
+     * It adds a game to the registry and indexes the chunks of its letterboard.
+     *
+     * @param game The game to add.
+     */
+    public void register(HangmanGame game) {
+        this.arenas.put(game.getName(), game);
+        LongIntMap worldIndex = this.chunkIndex.computeIfAbsent(game.getLetterBoard().getWorld().getUID(), k -> new LongIntMap());
+        game.getLetterBoard().forEachChunkKey(chunkKey -> {
+            int bucket = worldIndex.get(chunkKey);
+            if (bucket == -1) {
+                worldIndex.put(chunkKey, this.chunkBuckets.size());
+                this.chunkBuckets.add(new HangmanGame[]{game});
+                return;
+            }
+            HangmanGame[] games = this.chunkBuckets.get(bucket);
+            if (Arrays.asList(games).contains(game)) return;
+            games = Arrays.copyOf(games, games.length + 1);
+            games[games.length - 1] = game;
+            this.chunkBuckets.set(bucket, games);
+        });
+    }
+
+    public HangmanGame getArena(String name) {
+        return this.arenas.get(name);
+    }
+
+    public Collection<HangmanGame> getArenas() {
+        return this.arenas.values();
+    }
+
+    /**
+     * It passes block clicks to the games that have a letter block in the clicked chunk.
+     *
+     * @param event The event that was called.
+     */
+    @EventHandler
+    public void onClickLetter(PlayerInteractEvent event) {
+        if (event.getAction() != Action.LEFT_CLICK_BLOCK && event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
+        Block block = event.getClickedBlock();
+        if (block == null) return;
+        LongIntMap worldIndex = this.chunkIndex.get(block.getWorld().getUID());
+        if (worldIndex == null) return;
+        int bucket = worldIndex.get(Chunk.getChunkKey(block.getX() >> 4, block.getZ() >> 4));
+        if (bucket == -1) return;
+        for (HangmanGame game : this.chunkBuckets.get(bucket)) {
+            game.onClickLetter(event);
+        }
+    }
+
+    /**
+     * It handles clicks in a letter menu. Nothing can be taken out of or put into the menu.
+     *
+     * @param event The event that was called.
+     */
+    @EventHandler
+    public void onMenuClick(InventoryClickEvent event) {
+        if (!(event.getInventory().getHolder() instanceof LetterMenu menu)) return;
+        event.setCancelled(true);
+        if (event.getClickedInventory() != event.getInventory()) return;
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+        menu.onClick(player, event.getSlot());
+    }
+
+    @EventHandler
+    public void onMenuDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof LetterMenu) event.setCancelled(true);
+    }
+}
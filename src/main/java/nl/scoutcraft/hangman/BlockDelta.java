@@ -0,0 +1,112 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.block.data.BlockData;
+
+import java.util.Arrays;
+
+/**
+ * It's a list of block changes relative to an origin, used to go from one structure to another
+ * without rewriting the blocks that stay the same
+ */
+public class BlockDelta {
+
+    private int[] positions;
+    private BlockData[] blockData;
+    private int size;
+
+    public BlockDelta() {
+        this(16);
+    }
+
+    private BlockDelta(int capacity) {
+        this.positions = new int[3 * Math.max(1, capacity)];
+        this.blockData = new BlockData[Math.max(1, capacity)];
+        this.size = 0;
+    }
+
+    /**
+     * It adds a block change to the delta.
+     *
+     * @param x The x coordinate relative to the origin
+     * @param y The y coordinate relative to the origin
+     * @param z The z coordinate relative to the origin
+     * @param blockData The block data to place.
+     */
+    public void add(int x, int y, int z, BlockData blockData) {
+        if (this.size == this.blockData.length) {
+            this.blockData = Arrays.copyOf(this.blockData, this.size * 2);
+            this.positions = Arrays.copyOf(this.positions, this.size * 6);
+        }
+        this.positions[this.size * 3] = x;
+        this.positions[this.size * 3 + 1] = y;
+        this.positions[this.size * 3 + 2] = z;
+        this.blockData[this.size] = blockData;
+        this.size++;
+    }
+
+    /**
+     * It creates a copy of this delta with the blocks grouped by the chunk section they are in when
+     * the delta is placed at the given origin, ordered by section x, then z, then y. Blocks in the
+     * same section keep their order. Every block is sorted as one long: the section relative to the
+     * lowest section of the delta in the high half and its index in the low half.
+     *
+     * @param oX The x coordinate of the origin.
+     * @param oY The y coordinate of the origin.
+     * @param oZ The z coordinate of the origin.
+     * @return The sorted copy, or this delta if it spans too many sections to be sorted.
+     */
+    public BlockDelta sortedBySection(int oX, int oY, int oZ) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < this.size; i++) {
+            int x = (oX + this.getX(i)) >> 4, y = (oY + this.getY(i)) >> 4, z = (oZ + this.getZ(i)) >> 4;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        // 11 bits for x and 10 bits each for z and y, so the section key stays a positive int.
+        if (maxX - minX >= 1 << 11 || maxZ - minZ >= 1 << 10 || maxY - minY >= 1 << 10) return this;
+
+        long[] keys = new long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            long section = ((oX + this.getX(i)) >> 4) - minX << 20
+                    | ((oZ + this.getZ(i)) >> 4) - minZ << 10
+                    | ((oY + this.getY(i)) >> 4) - minY;
+            keys[i] = section << 32 | i;
+        }
+        Arrays.sort(keys);
+        BlockDelta sorted = new BlockDelta(this.size);
+        for (long key : keys) {
+            int i = (int) key;
+            sorted.add(this.getX(i), this.getY(i), this.getZ(i), this.getBlockData(i));
+        }
+        return sorted;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int getX(int index) {
+        return this.positions[index * 3];
+    }
+
+    public int getY(int index) {
+        return this.positions[index * 3 + 1];
+    }
+
+    public int getZ(int index) {
+        return this.positions[index * 3 + 2];
+    }
+
+    public BlockData getBlockData(int index) {
+        return this.blockData[index];
+    }
+}
@@ -0,0 +1,199 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * It places queued block deltas over multiple ticks, within a budget of blocks and nanoseconds per
+ * tick. Jobs are grouped in lanes, one per game, so the jobs of a game are always placed in the
+ * order they were scheduled. Between lanes the job with the highest priority goes first.
+ */
+public class BlockPlacementScheduler extends BukkitRunnable {
+
+    private final int blocksPerTick;
+    private final long nanosPerTick;
+    private final Map<Object, ArrayDeque<Job>> lanes;
+    private final PlacementBackend backend;
+    private final Histogram tickTimer;
+    private final Histogram buildTimer;
+    private long sequence;
+
+    public BlockPlacementScheduler(int blocksPerTick, long nanosPerTick, PlacementBackend backend, MetricsRegistry metrics) {
+        this.blocksPerTick = blocksPerTick;
+        this.backend = backend;
+        this.nanosPerTick = nanosPerTick;
+        this.lanes = new HashMap<>();
+        this.tickTimer = metrics.histogram("placement_tick", "-");
+        this.buildTimer = metrics.histogram("stage_build", "-");
+        this.sequence = 0L;
+    }
+
+    /**
+     * It queues a delta to be placed relative to the origin.
+     *
+     * @param lane The owner of the job, jobs of the same owner are placed in order.
+     * @param delta The blocks to place.
+     * @param origin The location the delta is relative to.
+     * @param priority The priority of the job.
+     * @param callback Runs on the main thread once every block of the job is placed, may be null.
+     */
+    public void schedule(Object lane, BlockDelta delta, Location origin, PlacementPriority priority, Runnable callback) {
+        this.schedule(lane, delta, origin, priority, callback, this.buildTimer);
+    }
+
+    /**
+     * It queues a delta to be placed relative to the origin, and records how long placing it took.
+     *
+     * @param lane The owner of the job, jobs of the same owner are placed in order.
+     * @param delta The blocks to place.
+     * @param origin The location the delta is relative to.
+     * @param priority The priority of the job.
+     * @param callback Runs on the main thread once every block of the job is placed, may be null.
+     * @param buildTimer The histogram to record the time spent placing the job in, looked up once by
+     * the owner.
+     */
+    public void schedule(Object lane, BlockDelta delta, Location origin, PlacementPriority priority, Runnable callback, Histogram buildTimer) {
+        this.lanes.computeIfAbsent(lane, k -> new ArrayDeque<>()).add(new Job(this.backend, delta, origin, priority, this.sequence++, callback, buildTimer));
+    }
+
+    public PlacementBackend getBackend() {
+        return this.backend;
+    }
+
+    /**
+     * Returns true if the lane has jobs that are not completely placed yet.
+     *
+     * @param lane The owner of the jobs.
+     * @return A boolean value.
+     */
+    public boolean isBusy(Object lane) {
+        return this.lanes.containsKey(lane);
+    }
+
+    /**
+     * Places blocks until the block or time budget of this tick is used up.
+     */
+    @Override
+    public void run() {
+        if (this.lanes.isEmpty()) return;
+        long start = System.nanoTime();
+        long deadline = start + this.nanosPerTick;
+        int budget = this.blocksPerTick;
+        while (budget > 0 && System.nanoTime() < deadline) {
+            ArrayDeque<Job> lane = this.nextLane();
+            if (lane == null) break;
+            Job job = lane.peek();
+            budget -= job.place(Math.min(budget, 64));
+            if (job.isDone()) {
+                lane.poll();
+                if (lane.isEmpty()) this.lanes.values().remove(lane);
+                job.finish();
+            }
+        }
+        this.tickTimer.recordSince(start);
+    }
+
+    /**
+     * It places every queued block right away, used when the plugin is disabled.
+     */
+    public void flush() {
+        ArrayDeque<Job> lane;
+        while ((lane = this.nextLane()) != null) {
+            Job job = lane.poll();
+            job.place(Integer.MAX_VALUE);
+            if (lane.isEmpty()) this.lanes.values().remove(lane);
+            job.finish();
+        }
+    }
+
+    /**
+     * Returns the lane whose first job has the highest priority, the oldest one if there is a tie.
+     *
+     * @return The lane, or null if nothing is queued.
+     */
+    private ArrayDeque<Job> nextLane() {
+        ArrayDeque<Job> best = null;
+        Iterator<ArrayDeque<Job>> iterator = this.lanes.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<Job> lane = iterator.next();
+            if (lane.isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+            if (best == null || lane.peek().comesBefore(best.peek())) best = lane;
+        }
+        return best;
+    }
+
+    /**
+     * It's a delta that is being placed, with the index of the next block to place
+     */
+    private static class Job {
+
+        private final PlacementBackend backend;
+        private final BlockDelta delta;
+        private final World world;
+        private final int oX, oY, oZ;
+        private final PlacementPriority priority;
+        private final long sequence;
+        private final Runnable callback;
+        private final Histogram buildTimer;
+        private int cursor;
+        private long nanos;
+
+        private Job(PlacementBackend backend, BlockDelta delta, Location origin, PlacementPriority priority, long sequence, Runnable callback, Histogram buildTimer) {
+            this.backend = backend;
+            this.world = origin.getWorld();
+            this.oX = origin.getBlockX();
+            this.oY = origin.getBlockY();
+            this.oZ = origin.getBlockZ();
+            this.delta = backend.prepare(delta, this.oX, this.oY, this.oZ);
+            this.priority = priority;
+            this.sequence = sequence;
+            this.callback = callback;
+            this.buildTimer = buildTimer;
+            this.cursor = 0;
+            this.nanos = 0L;
+        }
+
+        private boolean comesBefore(Job other) {
+            if (this.priority != other.priority) return this.priority.ordinal() < other.priority.ordinal();
+            return this.sequence < other.sequence;
+        }
+
+        private boolean isDone() {
+            return this.cursor >= this.delta.size();
+        }
+
+        /**
+         * Places up to the given amount of blocks.
+         *
+         * @param amount The maximum amount of blocks to place.
+         * @return The amount of blocks that were placed, at least 1 so an empty job still costs budget.
+         */
+        private int place(int amount) {
+            long start = System.nanoTime();
+            int end = (int) Math.min(this.delta.size(), (long) this.cursor + amount);
+            int placed = end - this.cursor;
+            this.backend.place(this.world, this.oX, this.oY, this.oZ, this.delta, this.cursor, end);
+            this.cursor = end;
+            this.nanos += System.nanoTime() - start;
+            return Math.max(1, placed);
+        }
+
+        /**
+         * It records the time spent placing the blocks of this job, over all ticks, and runs the
+         * callback.
+         */
+        private void finish() {
+            this.buildTimer.record(this.nanos);
+            if (this.callback != null) this.callback.run();
+        }
+    }
+}
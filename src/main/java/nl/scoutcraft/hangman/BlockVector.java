@@ -2,13 +2,18 @@ package nl.scoutcraft.hangman;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.function.BiConsumer;
-import java.util.stream.IntStream;
+import java.util.function.Consumer;
 
 /**
  * It's a cuboid that stores the block data of all the blocks inside it
@@ -17,44 +22,90 @@ public class BlockVector extends Cuboid {
 
     private boolean saveAir;
     private int x, y, z;
-    private BlockData[] blockData;
+    private BlockData[] palette;
+    private int[] paletteIndices;
     protected Location origin;
 
-    public BlockVector(Location locationA, Location locationB, Location origin) throws InstantiationException {
+    // It's a constructor for a structure that was captured from the world, see capture.
+    private BlockVector(Location locationA, Location locationB, Location origin, BlockData[] palette, int[] paletteIndices) throws InstantiationException {
         super(locationA, locationB);
         this.saveAir = false;
         this.x = this.getLocationB().getBlockX() - this.getLocationA().getBlockX() + 1;
         this.y = this.getLocationB().getBlockY() - this.getLocationA().getBlockY() + 1;
         this.z = this.getLocationB().getBlockZ() - this.getLocationA().getBlockZ() + 1;
         this.origin = origin;
-        this.blockData = new BlockData[(this.x) * (this.y) * (this.z)];
-        for (int xI = 0; xI < this.x; xI++) {
-            for (int yI = 0; yI < this.y; yI++) {
-                for (int zI = 0; zI < this.z; zI++) {
-                    this.registerBlock(xI, yI, zI, this.getLocationA().add(xI, yI, zI).getBlock());
+        this.palette = palette;
+        this.paletteIndices = paletteIndices;
+    }
+
+    /**
+     * It captures the blocks between two locations. Snapshots of the chunks in the selection are
+     * taken on the main thread, the blocks are read from them and put in a palette on another
+     * thread, so a large selection doesn't freeze the server.
+     *
+     * @param locationA A corner of the selection.
+     * @param locationB The opposite corner of the selection.
+     * @param origin The location the structure is relative to.
+     * @param callback Runs on the main thread with the captured BlockVector.
+     * @throws InstantiationException If the locations are not in the same world.
+     */
+    public static void capture(Location locationA, Location locationB, Location origin, Consumer<BlockVector> callback) throws InstantiationException {
+        Cuboid bounds = new Cuboid(locationA, locationB);
+        Location min = bounds.getLocationA(), max = bounds.getLocationB();
+        World world = min.getWorld();
+        int minX = min.getBlockX(), minY = min.getBlockY(), minZ = min.getBlockZ();
+        int sizeX = max.getBlockX() - minX + 1, sizeY = max.getBlockY() - minY + 1, sizeZ = max.getBlockZ() - minZ + 1;
+        int minChunkX = minX >> 4, minChunkZ = minZ >> 4;
+        int chunksZ = (max.getBlockZ() >> 4) - minChunkZ + 1;
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[((max.getBlockX() >> 4) - minChunkX + 1) * chunksZ];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = world.getChunkAt(minChunkX + i / chunksZ, minChunkZ + i % chunksZ).getChunkSnapshot(false, false, false);
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(Main.getInstance(), () -> {
+            int[] paletteIndices = new int[sizeX * sizeY * sizeZ];
+            HashMap<BlockData, Integer> paletteMap = new HashMap<>();
+            int cell = 0;
+            for (int xI = 0; xI < sizeX; xI++) {
+                int worldX = minX + xI;
+                for (int yI = 0; yI < sizeY; yI++) {
+                    for (int zI = 0; zI < sizeZ; zI++) {
+                        int worldZ = minZ + zI;
+                        ChunkSnapshot snapshot = snapshots[((worldX >> 4) - minChunkX) * chunksZ + ((worldZ >> 4) - minChunkZ)];
+                        BlockData blockData = snapshot.getBlockData(worldX & 15, minY + yI, worldZ & 15);
+                        paletteIndices[cell++] = paletteMap.computeIfAbsent(blockData, k -> paletteMap.size());
+                    }
                 }
             }
-        }
+            BlockData[] palette = new BlockData[paletteMap.size()];
+            paletteMap.forEach((blockData, index) -> palette[index] = JsonUtil.internBlockData(blockData));
+            Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+                try {
+                    callback.accept(new BlockVector(min, max, origin, palette, paletteIndices));
+                } catch (InstantiationException e) {
+                    e.printStackTrace();
+                }
+            });
+        });
     }
 
     // It's a constructor that takes a JsonObject and a Location as parameters. It then calls the
     // deserialize method with the JsonObject as parameter and sets the origin to the Location.
     public BlockVector(Location origin, JsonObject jsonObject) {
+        this.origin = origin;
         this.deserialize(jsonObject);
         this.origin = origin;
     }
 
-    /**
-     * This function takes in the x, y, and z coordinates of a block, and the block itself, and then
-     * stores the block's data in the blockData array.
-     * 
-     * @param x The x coordinate of the block
-     * @param y The y-coordinate of the block to register.
-     * @param z The z coordinate of the block
-     * @param block The block to register
-     */
-    private void registerBlock(int x, int y, int z, Block block) {
-        this.blockData[(x * this.y * this.z) + (y * this.z) + z] = block.getBlockData();
+    // It's a constructor for a structure that was already decoded, see readStructure. Only the block
+    // data of the palette is created here.
+    public BlockVector(Location origin, JsonObject jsonObject, StructureCodec.Structure structure) {
+        this.origin = origin;
+        this.deserialize(jsonObject, structure);
+        this.origin = origin;
+    }
+
+    private int cellIndex(int x, int y, int z) {
+        return (x * this.y * this.z) + (y * this.z) + z;
     }
 
     /**
@@ -66,7 +117,43 @@ public class BlockVector extends Cuboid {
      * @return The block data at the given coordinates.
      */
     public BlockData getBlockData(int x, int y, int z) {
-        return this.blockData[(x * this.y * this.z) + (y * this.z) + z];
+        return this.palette[this.paletteIndices[this.cellIndex(x, y, z)]];
+    }
+
+    /**
+     * Get the block data at the specified coordinates, or null if they are outside of the structure.
+     *
+     * @param x The x coordinate of the block
+     * @param y The y coordinate of the block
+     * @param z The z coordinate of the block
+     * @return The block data at the given coordinates, or null.
+     */
+    private BlockData getBlockDataOrNull(int x, int y, int z) {
+        if (x >= this.x || y >= this.y || z >= this.z) return null;
+        return this.getBlockData(x, y, z);
+    }
+
+    /**
+     * It computes the blocks that have to change to go from this structure to the target structure.
+     * Cells that the target does not save are left alone, just like {@link #build()} does.
+     *
+     * @param target The structure to go to.
+     * @return The delta from this structure to the target.
+     */
+    public BlockDelta deltaTo(BlockVector target) {
+        BlockDelta delta = new BlockDelta();
+        for (int xI = 0; xI < target.x; xI++) {
+            for (int yI = 0; yI < target.y; yI++) {
+                for (int zI = 0; zI < target.z; zI++) {
+                    BlockData to = target.getBlockData(xI, yI, zI);
+                    if (to == null) continue;
+                    BlockData from = this.getBlockDataOrNull(xI, yI, zI);
+                    if (to.equals(from)) continue;
+                    delta.add(xI, yI, zI, to);
+                }
+            }
+        }
+        return delta;
     }
 
     /**
@@ -87,17 +174,66 @@ public class BlockVector extends Cuboid {
 
     /**
      * For each block in the schematic, set the block at the origin to the block data of the schematic
-     * block.
+     * block. The blocks are placed by the placement scheduler over the next ticks.
      */
     public void build() {
-        this.forEachBlock((b, bd) -> {
-            if (bd != null)
-                b.getRelative(this.origin.getBlockX(), this.origin.getBlockY(), this.origin.getBlockZ()).setBlockData(bd);
-        });
+        this.build(this, PlacementPriority.COSMETIC, null);
+    }
+
+    /**
+     * It queues every block of the schematic on the placement scheduler, relative to the origin.
+     *
+     * @param lane The owner of the build, builds of the same owner are placed in order.
+     * @param priority The priority of the build.
+     * @param callback Runs once every block is placed, may be null.
+     */
+    public void build(Object lane, PlacementPriority priority, Runnable callback) {
+        Main.getInstance().getPlacementScheduler().schedule(lane, this.toDelta(), this.origin, priority, callback);
+    }
+
+    /**
+     * It creates a delta of the saved blocks that differ from the blocks that are in the world now,
+     * relative to the origin. This reads the world, so it has to run on the main thread.
+     *
+     * @return The delta.
+     */
+    public BlockDelta deltaFromWorld() {
+        BlockDelta delta = new BlockDelta();
+        World world = this.origin.getWorld();
+        int oX = this.origin.getBlockX(), oY = this.origin.getBlockY(), oZ = this.origin.getBlockZ();
+        for (int xI = 0; xI < this.x; xI++) {
+            for (int yI = 0; yI < this.y; yI++) {
+                for (int zI = 0; zI < this.z; zI++) {
+                    BlockData bd = this.getBlockData(xI, yI, zI);
+                    if (bd != null && !world.getBlockAt(oX + xI, oY + yI, oZ + zI).getBlockData().equals(bd))
+                        delta.add(xI, yI, zI, bd);
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * It creates a delta that places every saved block of the schematic.
+     *
+     * @return The delta.
+     */
+    public BlockDelta toDelta() {
+        BlockDelta delta = new BlockDelta();
+        for (int xI = 0; xI < this.x; xI++) {
+            for (int yI = 0; yI < this.y; yI++) {
+                for (int zI = 0; zI < this.z; zI++) {
+                    BlockData bd = this.getBlockData(xI, yI, zI);
+                    if (bd != null) delta.add(xI, yI, zI, bd);
+                }
+            }
+        }
+        return delta;
     }
 
     /**
-     * It takes the data from the class and puts it into a JsonObject
+     * It takes the data from the class and puts it into a JsonObject. The blocks are stored as a
+     * binary structure with a palette, see {@link StructureCodec}.
      * 
      * @return A JsonObject
      */
@@ -105,31 +241,118 @@ public class BlockVector extends Cuboid {
     public JsonObject serialize() {
         JsonObject jsonObject = super.serialize();
         jsonObject.addProperty("saveAir", this.saveAir);
-        jsonObject.addProperty("x", this.x);
-        jsonObject.addProperty("y", this.y);
-        jsonObject.addProperty("z", this.z);
         jsonObject.addProperty("origin", JsonUtil.locationToString(this.origin));
-        JsonArray jsonBlockDataArray = new JsonArray();
-        Arrays.stream(this.blockData).map(JsonUtil::blockDataToString).forEach(jsonBlockDataArray::add);
-        jsonObject.add("blockData", jsonBlockDataArray);
+        jsonObject.addProperty("format", StructureCodec.VERSION);
+        String[] paletteStrings = new String[this.palette.length];
+        for (int i = 0; i < this.palette.length; i++) {
+            paletteStrings[i] = JsonUtil.blockDataToString(this.palette[i]);
+        }
+        jsonObject.addProperty("structure", StructureCodec.encode(new StructureCodec.Structure(this.x, this.y, this.z, paletteStrings, this.paletteIndices)));
         return jsonObject;
     }
 
     /**
-     * It takes a JsonObject, and uses it to set the values of the fields of the object
+     * It takes a JsonObject, and uses it to set the values of the fields of the object. Both the
+     * binary structure format and the old format with one block data string per cell are read.
      * 
      * @param jsonObject The JsonObject that contains the data to deserialize.
+     * @throws UncheckedIOException If the binary structure is not valid.
      */
     @Override
     public void deserialize(JsonObject jsonObject) {
+        try {
+            this.deserialize(jsonObject, readStructure(jsonObject, "in memory"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deserialize(JsonObject jsonObject, StructureCodec.Structure structure) {
         this.saveAir = jsonObject.get("saveAir").getAsBoolean();
-        this.x = jsonObject.get("x").getAsInt();
-        this.y = jsonObject.get("y").getAsInt();
-        this.z = jsonObject.get("z").getAsInt();
-        this.origin = JsonUtil.stringToLocation(jsonObject.get("origin").getAsString());
-        JsonArray blockDataJsonArray = jsonObject.getAsJsonArray("blockData");
-        this.blockData = new BlockData[blockDataJsonArray.size()];
-        IntStream.range(0, blockDataJsonArray.size()).forEach(i -> this.blockData[i] = JsonUtil.stringToBlockData(blockDataJsonArray.get(i).getAsString()));
+        this.origin = JsonUtil.stringToLocation(jsonObject.get("origin").getAsString(), this.getFallbackWorld());
+        this.load(structure);
         super.deserialize(jsonObject);
     }
+
+    /**
+     * Returns the world of the origin, which is the world of the arena when the structure is loaded
+     * for one.
+     *
+     * @return The world, or null if there is no origin yet.
+     */
+    @Override
+    protected World getFallbackWorld() {
+        return this.origin == null ? null : this.origin.getWorld();
+    }
+
+    /**
+     * It decodes the blocks of a serialized BlockVector, in the binary structure format or the old
+     * format. This doesn't use Bukkit, so it can run on any thread.
+     *
+     * @param jsonObject The JsonObject of a serialized BlockVector.
+     * @param source The file or config entry the structure was read from, for the error message.
+     * @return The decoded structure.
+     * @throws IOException If the binary structure is not valid.
+     */
+    public static StructureCodec.Structure readStructure(JsonObject jsonObject, String source) throws IOException {
+        if (jsonObject.has("structure")) return StructureCodec.decode(jsonObject.get("structure").getAsString(), source);
+        return readLegacyStructure(jsonObject);
+    }
+
+    /**
+     * It sets the size, palette and cells of this BlockVector from a decoded structure. Only one
+     * block data is created per palette entry.
+     *
+     * @param structure The decoded structure.
+     */
+    private void load(StructureCodec.Structure structure) {
+        this.x = structure.getX();
+        this.y = structure.getY();
+        this.z = structure.getZ();
+        this.palette = new BlockData[structure.getPalette().length];
+        for (int i = 0; i < this.palette.length; i++) {
+            String entry = structure.getPalette()[i];
+            this.palette[i] = entry == null ? null : JsonUtil.stringToBlockData(entry);
+        }
+        this.paletteIndices = structure.getIndices();
+    }
+
+    /**
+     * It reads the old format, where "blockData" holds one block data string per cell, and turns it
+     * into a structure with a palette.
+     *
+     * @param jsonObject The JsonObject in the old format.
+     * @return The structure.
+     */
+    private static StructureCodec.Structure readLegacyStructure(JsonObject jsonObject) {
+        JsonArray blockDataJsonArray = jsonObject.getAsJsonArray("blockData");
+        HashMap<String, Integer> paletteMap = new HashMap<>();
+        int[] indices = new int[blockDataJsonArray.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = paletteMap.computeIfAbsent(blockDataJsonArray.get(i).getAsString(), k -> paletteMap.size());
+        }
+        String[] paletteStrings = new String[paletteMap.size()];
+        paletteMap.forEach((string, index) -> paletteStrings[index] = string.isEmpty() ? null : string);
+        return new StructureCodec.Structure(jsonObject.get("x").getAsInt(), jsonObject.get("y").getAsInt(), jsonObject.get("z").getAsInt(), paletteStrings, indices);
+    }
+
+    /**
+     * It converts a BlockVector in the old format to the binary structure format, without creating
+     * any block data. Objects that are already in the binary format are returned as they are.
+     *
+     * @param jsonObject The JsonObject of a serialized BlockVector.
+     * @return A JsonObject in the binary structure format.
+     */
+    public static JsonObject migrate(JsonObject jsonObject) {
+        if (!jsonObject.has("blockData")) return jsonObject;
+        JsonObject migrated = jsonObject.deepCopy();
+        StructureCodec.Structure structure = readLegacyStructure(jsonObject);
+        migrated.remove("blockData");
+        migrated.remove("x");
+        migrated.remove("y");
+        migrated.remove("z");
+        migrated.addProperty("format", StructureCodec.VERSION);
+        migrated.addProperty("structure", StructureCodec.encode(structure));
+        return migrated;
+    }
 }
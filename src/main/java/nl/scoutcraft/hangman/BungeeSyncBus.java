@@ -0,0 +1,73 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * It's a bus that forwards messages to every other server behind a BungeeCord or Velocity proxy
+ * with plugin messages. Plugin messages travel through a player, so messages that are published
+ * while nobody is online are dropped. GameSync sends the state of every game again when the first
+ * player joins.
+ */
+public class BungeeSyncBus implements GameSyncBus, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "Hangman";
+
+    private Consumer<byte[]> receiver;
+
+    @Override
+    public void open(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        Bukkit.getMessenger().registerOutgoingPluginChannel(Main.getInstance(), CHANNEL);
+        Bukkit.getMessenger().registerIncomingPluginChannel(Main.getInstance(), CHANNEL, this);
+    }
+
+    @Override
+    public void publish(byte[] message) {
+        Iterator<? extends Player> players = Bukkit.getOnlinePlayers().iterator();
+        if (!players.hasNext()) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(message.length);
+            out.write(message);
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not write a sync message", e);
+            return;
+        }
+        players.next().sendPluginMessage(Main.getInstance(), CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte[] message) {
+        if (!channel.equals(CHANNEL)) return;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!in.readUTF().equals(SUBCHANNEL)) return;
+            byte[] data = new byte[in.readUnsignedShort()];
+            in.readFully(data);
+            this.receiver.accept(data);
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not read a sync message", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(Main.getInstance(), CHANNEL);
+        Bukkit.getMessenger().unregisterIncomingPluginChannel(Main.getInstance(), CHANNEL, this);
+    }
+}
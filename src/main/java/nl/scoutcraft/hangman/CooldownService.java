@@ -0,0 +1,146 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * It keeps the guess cooldowns of all players and arenas, in server ticks. A player's cooldown is
+ * shared by all arenas. The players are kept in an open addressing table keyed on their UUID, which
+ * is swept in bulk when it runs as a task instead of cleaning up one quit at a time.
+ */
+public class CooldownService extends BukkitRunnable {
+
+    private final long playerCooldown;
+    private final long arenaCooldown;
+
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    private long[] expiries;
+    private boolean[] used;
+    private int size;
+
+    private long[] arenaExpiries;
+
+    /**
+     * @param playerCooldown The ticks a player has to wait between two guesses.
+     * @param arenaCooldown The ticks between two guesses by anyone in the same arena.
+     */
+    public CooldownService(long playerCooldown, long arenaCooldown) {
+        this.playerCooldown = playerCooldown;
+        this.arenaCooldown = arenaCooldown;
+        this.allocate(64);
+        this.arenaExpiries = new long[0];
+    }
+
+    private void allocate(int capacity) {
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.expiries = new long[capacity];
+        this.used = new boolean[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * It gives an arena its own slot for its global cooldown.
+     *
+     * @return The slot of the arena.
+     */
+    public int registerArena() {
+        this.arenaExpiries = Arrays.copyOf(this.arenaExpiries, this.arenaExpiries.length + 1);
+        return this.arenaExpiries.length - 1;
+    }
+
+    /**
+     * Returns true if the player's cooldown and the arena's cooldown are both over.
+     *
+     * @param player The UUID of the player.
+     * @param arena The slot of the arena.
+     * @return A boolean value.
+     */
+    public boolean canGuess(UUID player, int arena) {
+        long now = Bukkit.getCurrentTick();
+        return this.arenaExpiries[arena] <= now && this.getExpiry(player) <= now;
+    }
+
+    /**
+     * It starts the cooldown of the player and of the arena.
+     *
+     * @param player The UUID of the player.
+     * @param arena The slot of the arena.
+     */
+    public void recordGuess(UUID player, int arena) {
+        long now = Bukkit.getCurrentTick();
+        this.arenaExpiries[arena] = now + this.arenaCooldown;
+        this.putExpiry(player, now + this.playerCooldown);
+    }
+
+    private static int hash(long most, long least) {
+        long h = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private long getExpiry(UUID player) {
+        long most = player.getMostSignificantBits(), least = player.getLeastSignificantBits();
+        int mask = this.used.length - 1;
+        for (int i = hash(most, least) & mask; this.used[i]; i = (i + 1) & mask) {
+            if (this.mostSignificantBits[i] == most && this.leastSignificantBits[i] == least) return this.expiries[i];
+        }
+        return 0L;
+    }
+
+    private void putExpiry(UUID player, long expiry) {
+        if ((this.size + 1) * 2 > this.used.length) this.rehash(this.used.length * 2, Long.MIN_VALUE);
+        this.insert(player.getMostSignificantBits(), player.getLeastSignificantBits(), expiry);
+    }
+
+    private void insert(long most, long least, long expiry) {
+        int mask = this.used.length - 1;
+        int i = hash(most, least) & mask;
+        for (; this.used[i]; i = (i + 1) & mask) {
+            if (this.mostSignificantBits[i] == most && this.leastSignificantBits[i] == least) {
+                this.expiries[i] = expiry;
+                return;
+            }
+        }
+        this.used[i] = true;
+        this.mostSignificantBits[i] = most;
+        this.leastSignificantBits[i] = least;
+        this.expiries[i] = expiry;
+        this.size++;
+    }
+
+    /**
+     * It rebuilds the table with the given capacity, leaving out every entry that expired before the
+     * given tick.
+     *
+     * @param capacity The new capacity, a power of two.
+     * @param now Entries with an expiry up to this tick are left out.
+     */
+    private void rehash(int capacity, long now) {
+        long[] most = this.mostSignificantBits, least = this.leastSignificantBits, expiries = this.expiries;
+        boolean[] used = this.used;
+        this.allocate(capacity);
+        for (int i = 0; i < used.length; i++) {
+            if (used[i] && expiries[i] > now) this.insert(most[i], least[i], expiries[i]);
+        }
+    }
+
+    /**
+     * It removes every player whose cooldown is over, and shrinks the table if it got mostly empty.
+     */
+    @Override
+    public void run() {
+        long now = Bukkit.getCurrentTick();
+        int live = 0;
+        for (int i = 0; i < this.used.length; i++) {
+            if (this.used[i] && this.expiries[i] > now) live++;
+        }
+        if (live == this.size) return;
+        int capacity = 64;
+        while (capacity < live * 4) capacity <<= 1;
+        this.rehash(capacity, now);
+    }
+}
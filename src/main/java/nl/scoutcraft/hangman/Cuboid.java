@@ -2,6 +2,7 @@ package nl.scoutcraft.hangman;
 
 import com.google.gson.JsonObject;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 
 /**
@@ -87,7 +88,16 @@ public class Cuboid {
      * @param jsonObject The JsonObject that contains the data to deserialize.
      */
     public void deserialize(JsonObject jsonObject) {
-        this.locA = JsonUtil.stringToLocation(jsonObject.get("locA").getAsString());
-        this.locB = JsonUtil.stringToLocation(jsonObject.get("locB").getAsString());
+        this.locA = JsonUtil.stringToLocation(jsonObject.get("locA").getAsString(), this.getFallbackWorld());
+        this.locB = JsonUtil.stringToLocation(jsonObject.get("locB").getAsString(), this.getFallbackWorld());
+    }
+
+    /**
+     * Returns the world to use for saved corners whose own world isn't loaded.
+     *
+     * @return The world, or null to use the one set in the config.
+     */
+    protected World getFallbackWorld() {
+        return null;
     }
 }
@@ -0,0 +1,175 @@
+package nl.scoutcraft.hangman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * It's an append-only file with a snapshot of a game after every change, so running games survive
+ * a restart or a crash. Snapshots are written on a separate thread. Every record has its length and
+ * a checksum, so a record that was only half written when the server crashed is ignored. When
+ * enough records are written, the journal is compacted to only the last snapshot of every arena.
+ */
+public class GameJournal {
+
+    private static final int COMPACT_AFTER = 1024;
+
+    private final File file;
+    private final ExecutorService writer;
+    private final LinkedHashMap<String, GameSnapshot> latest;
+    private DataOutputStream out;
+    private int records;
+
+    public GameJournal(File file) {
+        this.file = file;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Hangman journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.latest = new LinkedHashMap<>();
+    }
+
+    /**
+     * It reads the last snapshot of every arena from the journal and compacts it. This runs before
+     * anything is written.
+     *
+     * @return The last snapshot of every arena, by arena name.
+     */
+    public Map<String, GameSnapshot> load() {
+        if (this.file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+                while (true) {
+                    GameSnapshot snapshot = readRecord(in);
+                    if (snapshot == null) break;
+                    this.latest.put(snapshot.getArena(), snapshot);
+                }
+            } catch (IOException e) {
+                Main.getInstance().getLogger().log(Level.WARNING, "Could not read the game journal", e);
+            }
+        }
+        this.writer.execute(this::compact);
+        return new HashMap<>(this.latest);
+    }
+
+    /**
+     * It queues a snapshot to be appended to the journal.
+     *
+     * @param snapshot The snapshot to write.
+     */
+    public void record(GameSnapshot snapshot) {
+        this.writer.execute(() -> {
+            try {
+                this.latest.put(snapshot.getArena(), snapshot);
+                if (this.out == null) this.out = this.open(true);
+                writeRecord(this.out, snapshot);
+                this.out.flush();
+                if (++this.records >= COMPACT_AFTER) this.compact();
+            } catch (IOException e) {
+                Main.getInstance().getLogger().log(Level.WARNING, "Could not write to the game journal", e);
+            }
+        });
+    }
+
+    /**
+     * It writes the last snapshot of every arena to a new file and moves it over the journal.
+     */
+    private void compact() {
+        try {
+            if (this.out != null) this.out.close();
+            File temp = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+            try (DataOutputStream compacted = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                for (GameSnapshot snapshot : this.latest.values()) {
+                    writeRecord(compacted, snapshot);
+                }
+            }
+            Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.out = this.open(true);
+            this.records = 0;
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not compact the game journal", e);
+        }
+    }
+
+    private DataOutputStream open(boolean append) throws IOException {
+        this.file.getParentFile().mkdirs();
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file, append)));
+    }
+
+    /**
+     * It writes everything that is still queued and closes the journal.
+     */
+    public void close() {
+        this.writer.execute(() -> {
+            try {
+                if (this.out != null) this.out.close();
+            } catch (IOException e) {
+                Main.getInstance().getLogger().log(Level.WARNING, "Could not close the game journal", e);
+            }
+        });
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, GameSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream payload = new DataOutputStream(bytes)) {
+            payload.writeUTF(snapshot.getArena());
+            payload.writeUTF(snapshot.getWord());
+            payload.writeInt(snapshot.getGuessedMask());
+            payload.writeInt(snapshot.getWrongGuesses());
+            payload.writeLong(snapshot.getTime());
+        }
+        byte[] data = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        out.writeInt(data.length);
+        out.writeInt((int) crc.getValue());
+        out.write(data);
+    }
+
+    /**
+     * It reads the next record of the journal.
+     *
+     * @param in The journal.
+     * @return The snapshot, or null at the end of the journal or at a broken record.
+     */
+    private static GameSnapshot readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > 4096) return null;
+            byte[] data = new byte[length];
+            in.readFully(data);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            if ((int) crc.getValue() != checksum) return null;
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(data));
+            return new GameSnapshot(payload.readUTF(), payload.readUTF(), payload.readInt(), payload.readInt(), payload.readLong());
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+}
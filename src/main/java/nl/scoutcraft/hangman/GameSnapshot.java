@@ -0,0 +1,41 @@
+package nl.scoutcraft.hangman;
+
+/**
+ * It's the state of a game at one moment: the word, the guessed letters and the wrong guesses
+ */
+public class GameSnapshot {
+
+    private final String arena;
+    private final String word;
+    private final int guessedMask;
+    private final int wrongGuesses;
+    private final long time;
+
+    public GameSnapshot(String arena, String word, int guessedMask, int wrongGuesses, long time) {
+        this.arena = arena;
+        this.word = word;
+        this.guessedMask = guessedMask;
+        this.wrongGuesses = wrongGuesses;
+        this.time = time;
+    }
+
+    public String getArena() {
+        return this.arena;
+    }
+
+    public String getWord() {
+        return this.word;
+    }
+
+    public int getGuessedMask() {
+        return this.guessedMask;
+    }
+
+    public int getWrongGuesses() {
+        return this.wrongGuesses;
+    }
+
+    public long getTime() {
+        return this.time;
+    }
+}
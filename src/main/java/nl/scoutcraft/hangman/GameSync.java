@@ -0,0 +1,232 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+
+/**
+ * It shares the games of this server with the other servers of the network, so every lobby plays
+ * the same word. Changes are collected per game and sent once per tick, so a burst of guesses in one
+ * tick is one message.
+ *
+ * Every game has an epoch: the Lamport clock and server id of the reset that started it. A newer
+ * epoch replaces the game, a tie on the clock is won by the higher server id, so all servers end up
+ * on the same word. Within an epoch the guessed letters are merged into the guessed letters of the
+ * other servers, so guesses made on two servers at once both count.
+ *
+ * Every message carries the whole state of a game, so a server that missed messages catches up with
+ * the next one it gets. A server that gets a message of an older epoch answers with its own state,
+ * so a server that restarted or missed a reset moves to the newest game right away. The state of
+ * every game is also sent every sync.stateSeconds, and when the first player joins, because the
+ * bungee bus can't send anything while nobody is online.
+ *
+ * Layout (version 3):
+ * <pre>
+ * byte     version
+ * utf      arena
+ * long     epoch clock, epoch node
+ * utf      word
+ * int      guessed mask
+ * </pre>
+ */
+public class GameSync extends BukkitRunnable implements Listener {
+
+    private static final int VERSION = 3;
+
+    private final GameSyncBus bus;
+    private final long stateTicks;
+    private final long node;
+    private final HashMap<String, long[]> epochs;
+    private final LinkedHashSet<HangmanGame> outbox;
+    private long clock;
+    private long ticks;
+
+    /**
+     * @param bus The bus to send and receive messages with.
+     * @param stateTicks The ticks between two times the state of every game is sent, 0 to never.
+     */
+    public GameSync(GameSyncBus bus, long stateTicks) {
+        this.bus = bus;
+        this.stateTicks = stateTicks;
+        this.node = ThreadLocalRandom.current().nextLong();
+        this.epochs = new HashMap<>();
+        this.outbox = new LinkedHashSet<>();
+        this.clock = 0L;
+        this.ticks = 0L;
+    }
+
+    /**
+     * It's what a server does with a message of another server.
+     */
+    enum Action {
+        // The message is of the current epoch, its letters are merged.
+        MERGE,
+        // The message is of a newer epoch, its game replaces the current one.
+        ADOPT,
+        // The message is of an older epoch, the sender is told about the current one.
+        ANSWER
+    }
+
+    /**
+     * Returns what to do with a message of the given epoch.
+     *
+     * @param current The current epoch of the game as {clock, node}, or null if it has none.
+     * @param clock The clock of the epoch of the message.
+     * @param node The node of the epoch of the message.
+     * @return The action.
+     */
+    static Action resolve(long[] current, long clock, long node) {
+        if (current == null) return Action.ADOPT;
+        if (current[0] == clock && current[1] == node) return Action.MERGE;
+        if (clock > current[0] || (clock == current[0] && node > current[1])) return Action.ADOPT;
+        return Action.ANSWER;
+    }
+
+    /**
+     * It's a decoded message.
+     */
+    record Message(String arena, long clock, long node, String word, int guessedMask) {
+    }
+
+    static byte[] encode(Message message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(message.arena());
+            out.writeLong(message.clock());
+            out.writeLong(message.node());
+            out.writeUTF(message.word());
+            out.writeInt(message.guessedMask());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the message in the bytes, or null if it's of another version.
+     *
+     * @param bytes The bytes of the message.
+     * @return The message, or null.
+     * @throws IOException If the message is cut off.
+     */
+    static Message decode(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readUnsignedByte() != VERSION) return null;
+            return new Message(in.readUTF(), in.readLong(), in.readLong(), in.readUTF(), in.readInt());
+        }
+    }
+
+    public void open() {
+        this.bus.open(message -> {
+            if (Bukkit.isPrimaryThread()) this.receive(message);
+            else Bukkit.getScheduler().runTask(Main.getInstance(), () -> this.receive(message));
+        });
+    }
+
+    /**
+     * It starts a new epoch for a game that was reset on this server.
+     *
+     * @param game The game that was reset.
+     */
+    public void markReset(HangmanGame game) {
+        this.clock++;
+        this.epochs.put(game.getName(), new long[]{this.clock, this.node});
+        this.outbox.add(game);
+    }
+
+    /**
+     * It queues the state of a game after a guess on this server. A game that was restored from the
+     * journal has no epoch yet, it gets a new one.
+     *
+     * @param game The game the letters were guessed in.
+     */
+    public void markGuess(HangmanGame game) {
+        if (!this.epochs.containsKey(game.getName())) {
+            this.markReset(game);
+            return;
+        }
+        this.outbox.add(game);
+    }
+
+    private void markAll() {
+        for (HangmanGame game : Main.getInstance().getArenaRegistry().getArenas()) {
+            if (this.epochs.containsKey(game.getName())) this.outbox.add(game);
+            else this.markReset(game);
+        }
+    }
+
+    /**
+     * It sends the state of every game that changed since the last tick, and of every game once every
+     * sync.stateSeconds.
+     */
+    @Override
+    public void run() {
+        if (this.stateTicks > 0 && ++this.ticks % this.stateTicks == 0) this.markAll();
+        if (this.outbox.isEmpty()) return;
+        for (HangmanGame game : this.outbox) {
+            long[] epoch = this.epochs.get(game.getName());
+            this.bus.publish(encode(new Message(game.getName(), epoch[0], epoch[1], game.getWord(), game.getGuessedMask())));
+        }
+        this.outbox.clear();
+    }
+
+    /**
+     * It applies a message from another server. A newer epoch replaces the game, letters of the
+     * current epoch are merged, and an older epoch is answered with the current state.
+     *
+     * @param bytes The message.
+     */
+    private void receive(byte[] bytes) {
+        Message message;
+        try {
+            message = decode(bytes);
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not read a sync message", e);
+            return;
+        }
+        if (message == null) return;
+        this.clock = Math.max(this.clock, message.clock()) + 1;
+        if (message.node() == this.node) return;
+        HangmanGame game = Main.getInstance().getArenaRegistry().getArena(message.arena());
+        if (game == null) return;
+        switch (resolve(this.epochs.get(message.arena()), message.clock(), message.node())) {
+            case MERGE -> game.applyRemoteGuesses(message.guessedMask(), false);
+            case ADOPT -> {
+                // A word that doesn't fit this arena is not taken, the arena keeps its own game then.
+                if (!game.applyRemoteWord(message.word(), message.guessedMask())) return;
+                this.epochs.put(message.arena(), new long[]{message.clock(), message.node()});
+                // The state queued here belongs to the epoch that just lost.
+                this.outbox.remove(game);
+            }
+            case ANSWER -> this.outbox.add(game);
+        }
+    }
+
+    /**
+     * It sends the state of every game when the first player joins, messages published while nobody
+     * was online may not have reached the other servers.
+     *
+     * @param event The event that was called.
+     */
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        if (Bukkit.getOnlinePlayers().size() == 1) this.markAll();
+    }
+
+    public void close() {
+        this.bus.close();
+    }
+}
@@ -0,0 +1,38 @@
+package nl.scoutcraft.hangman;
+
+import java.util.function.Consumer;
+
+/**
+ * It carries game sync messages between servers. The messages are opaque bytes, see GameSync for
+ * their layout. The bus is chosen with sync.bus in the config.
+ */
+public interface GameSyncBus {
+
+    /**
+     * It starts receiving messages from the other servers.
+     *
+     * @param receiver Gets every message from another server, on the main thread.
+     */
+    void open(Consumer<byte[]> receiver);
+
+    /**
+     * It sends a message to the other servers, it's not sent back to this server.
+     *
+     * @param message The message to send.
+     */
+    void publish(byte[] message);
+
+    void close();
+
+    /**
+     * Returns the bus with the given name.
+     *
+     * @param name The name from the config: "bungee" or "loopback".
+     * @return The bus, or null if the name is unknown.
+     */
+    static GameSyncBus of(String name) {
+        if ("bungee".equalsIgnoreCase(name)) return new BungeeSyncBus();
+        if ("loopback".equalsIgnoreCase(name)) return new LoopbackSyncBus();
+        return null;
+    }
+}
@@ -1,67 +1,121 @@
 package nl.scoutcraft.hangman;
 
-import com.destroystokyo.paper.profile.PlayerProfile;
-import com.destroystokyo.paper.profile.ProfileProperty;
-import com.google.gson.JsonParser;
-import nl.scoutcraft.eagle.libs.utils.TextUtils;
-import nl.scoutcraft.eagle.server.gui.inventory.base.AbstractInventoryMenu;
-import nl.scoutcraft.eagle.server.gui.inventory.base.Button;
-import nl.scoutcraft.eagle.server.gui.inventory.base.ButtonClickType;
-import nl.scoutcraft.eagle.server.utils.ItemBuilder;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.*;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * It's a class that manages a hangman game
  */
-public class HangmanGame implements Listener {
+public class HangmanGame {
 
     private final static long GAME_COOLDOWN = 20L * Main.getInstance().getConfig().getLong("gameCooldown");
-    private final static long PLAYER_GUES_COOLDOWN = 1000L * Main.getInstance().getConfig().getLong("playerCooldown");
-    private final static long GUESS_COOLDOWN = 1000L * Main.getInstance().getConfig().getLong("guessCooldown");
+    // The letters as strings, so a guess doesn't create one for its message.
+    private final static String[] LETTER_STRINGS = new String[LetterMenu.LETTERS.length];
 
+    static {
+        for (int i = 0; i < LETTER_STRINGS.length; i++) {
+            LETTER_STRINGS[i] = String.valueOf(LetterMenu.LETTERS[i]);
+        }
+    }
+
+    private final String name;
     private final LetterBoard letterBoard;
+    private final LetterMenu letterMenu;
     private final BlockVector[] stages;
+    private final BlockDelta[] nextStageDeltas;
+    private final BlockDelta[] resetDeltas;
+    private int builtStage;
+    private final StageRenderer stageRenderer;
+    private final ProximityTracker.Area audience;
+    private final long announceMergeTicks;
+    private Component pendingAnnouncement;
+    private boolean resetting;
 
     private String word;
-    private boolean[] guessed;
+    private int guessedMask;
+    private int wordMask;
+    private final long[] positionMasks;
     private int wrongGuesses;
     private final int maxGuesses;
 
-    private final List<String> wordList;
-    private final HashMap<Player, Long> lastGuessMap;
-    private final long lastGuess;
+    private final WordStore.ShuffleBag wordBag;
+    private final int cooldownSlot;
+    private final HashMap<UUID, String> participants;
+
+    private final Histogram makeGuessTimer;
+    private final Histogram clickTimer;
+    private final Histogram menuOpenTimer;
+    private final Histogram showLetterTimer;
+    private final Histogram boardResetTimer;
+    private final Histogram stageBuildTimer;
+
+    // Creating a new HangmanGame object from a parsed arena definition. This binds the arena to the
+    // world, so it runs on the main thread.
+    public HangmanGame(ArenaDefinition definition) throws InstantiationException {
+        this.name = definition.getName();
+        this.maxGuesses = definition.getMaxGuesses();
+
+        this.cooldownSlot = Main.getInstance().getCooldownService().registerArena();
+        this.participants = new HashMap<>();
+        MetricsRegistry metrics = Main.getInstance().getMetricsRegistry();
+        this.makeGuessTimer = metrics.histogram("make_guess", this.name);
+        this.clickTimer = metrics.histogram("click_letter", this.name);
+        this.menuOpenTimer = metrics.histogram("menu_open", this.name);
+        this.showLetterTimer = metrics.histogram("show_letter", this.name);
+        this.boardResetTimer = metrics.histogram("board_reset", this.name);
+        this.stageBuildTimer = metrics.histogram("stage_build", this.name);
+        this.positionMasks = new long[LetterMenu.LETTERS.length];
+
+        World world = Bukkit.getWorld(definition.getWorld());
+        if (world == null) throw new InstantiationException("Unknown world for arena " + this.name + "!");
+        Location gameLocation = world.getBlockAt(definition.getX(), definition.getY(), definition.getZ()).getLocation();
+
+        this.letterBoard = new LetterBoard(gameLocation, definition.getLetterBoard());
+        this.wordBag = definition.getWordStore().shuffleBag(this.letterBoard.getLocationVectors().length);
+        if (this.wordBag == null) throw new InstantiationException("No words of " + this.letterBoard.getLocationVectors().length + " letters for arena " + this.name + "!");
+        if (definition.getWordStore().getRejected() > 0)
+            Main.getInstance().getLogger().warning("Left out " + definition.getWordStore().getRejected() + " words with other characters than A-Z in arena " + this.name);
+        this.letterMenu = new LetterMenu(this);
+        this.stages = new BlockVector[definition.getStages().length];
+        IntStream.range(0, this.stages.length).forEach(i -> this.stages[i] = new BlockVector(gameLocation, definition.getStages()[i], definition.getStageStructures()[i]));
+        this.nextStageDeltas = new BlockDelta[this.stages.length];
+        this.resetDeltas = new BlockDelta[this.stages.length];
+        for (int i = 0; i < this.stages.length; i++) {
+            if (i + 1 < this.stages.length) this.nextStageDeltas[i] = this.stages[i].deltaTo(this.stages[i + 1]);
+            this.resetDeltas[i] = this.stages[i].deltaTo(this.stages[0]);
+        }
+        this.builtStage = -1;
+        if (Main.getInstance().getConfig().getString("rendering.mode", "world").equalsIgnoreCase("client")) {
+            this.stageRenderer = new StageRenderer(this.stages, gameLocation);
+            int radius = Math.max(1, Math.min(Main.getInstance().getConfig().getInt("rendering.radius", 6), world.getViewDistance() - 1));
+            this.stageRenderer.track(Main.getInstance().getProximityTracker(), gameLocation, radius);
+        } else {
+            this.stageRenderer = null;
+        }
 
-    // Creating a new HangmanGame object.
-    public HangmanGame(Location gameLocation, int maxGuesses) throws InstantiationException {
-        this.maxGuesses = maxGuesses;
+        int announceRadius = Main.getInstance().getConfig().getInt("announcements.radius", 8);
+        this.audience = announceRadius < 0 ? null : Main.getInstance().getProximityTracker().track(gameLocation, announceRadius, null);
+        this.announceMergeTicks = Main.getInstance().getConfig().getLong("announcements.mergeTicks", 0L);
 
-        this.lastGuessMap = new HashMap<>();
-        this.lastGuess = 0L;
+        if (!this.restore(Main.getInstance().getRestoredSnapshot(this.name)))
+            this.reset();
+    }
 
-        this.wordList = Main.getInstance().getConfig().getStringList("wordList");
-        Bukkit.getLogger().warning(Main.getInstance().getConfig().getString("letterBoard"));
-        this.letterBoard = new LetterBoard(gameLocation, JsonParser.parseString(Main.getInstance().getConfig().getString("letterBoard")).getAsJsonObject());
-        List<String> stagesStringList = Main.getInstance().getConfig().getStringList("stages");
-        if (maxGuesses > stagesStringList.size()) throw new InstantiationException("More guesses than stages!");
-        this.stages = new BlockVector[stagesStringList.size()];
-        IntStream.range(0, stagesStringList.size()).forEach(i -> this.stages[i] = new BlockVector(gameLocation, JsonParser.parseString(stagesStringList.get(i)).getAsJsonObject()));
+    public String getName() {
+        return this.name;
+    }
 
-        this.reset();
-        Bukkit.getPluginManager().registerEvents(this, Main.getInstance());
+    public LetterBoard getLetterBoard() {
+        return this.letterBoard;
     }
 
     /**
@@ -75,28 +129,25 @@ public class HangmanGame implements Listener {
     }
 
     /**
-     * If the current time is greater than the last time the player guessed plus the player's cooldown,
-     * and the current time is greater than the last time anyone guessed plus the global cooldown, then
-     * the player can guess
+     * If the player's own cooldown is over, and the cooldown after the last guess by anyone in this
+     * arena is over, then the player can guess
      * 
      * @param player The player who is guessing
-     * @return The time in milliseconds since the last guess was made.
+     * @return A boolean value.
      */
     private boolean canGuess(Player player) {
-        return System.currentTimeMillis() > (this.lastGuessMap.getOrDefault(player, 0L) + PLAYER_GUES_COOLDOWN) && System.currentTimeMillis() > (this.lastGuess + GUESS_COOLDOWN);
+        return Main.getInstance().getCooldownService().canGuess(player.getUniqueId(), this.cooldownSlot);
     }
 
     /**
-     * If the letter is not a letter or is not uppercase, return false. Otherwise, if the letter is in
-     * the word and has not been guessed, return false. Otherwise, return true
+     * Returns true if the letter has been guessed in this game.
      * 
      * @param letter the letter to check
-     * @return The index of the letter in the word.
+     * @return A boolean value.
      */
     private boolean isGuessed(char letter) {
-        if (!Character.isLetter(letter) || !Character.isUpperCase(letter)) return false;
         int index = this.indexOf(letter);
-        return index != -1 && this.guessed[index];
+        return index != -1 && (this.guessedMask & (1 << index)) != 0;
     }
 
     /**
@@ -106,19 +157,17 @@ public class HangmanGame implements Listener {
      * @return A boolean value.
      */
     private boolean isInWord(char letter) {
-        return this.word.toUpperCase().contains(String.valueOf(letter));
+        int index = this.indexOf(letter);
+        return index != -1 && (this.wordMask & (1 << index)) != 0;
     }
 
     /**
-     * If the word has been guessed, return true, otherwise return false
+     * If every letter of the word has been guessed, return true, otherwise return false
      * 
      * @return A boolean value.
      */
     private boolean hasWon() {
-        for (int i = 0; i < this.word.length(); i++) {
-            if (!this.isGuessed(Character.toUpperCase(this.word.charAt(i)))) return false;
-        }
-        return true;
+        return (this.wordMask & ~this.guessedMask) == 0;
     }
 
     /**
@@ -139,32 +188,60 @@ public class HangmanGame implements Listener {
      * @return The index of the letter in the array.
      */
     private int indexOf(char letter) {
-        for (int i = 0; i < LetterMenu.LETTERS.length; i++) {
-            if (LetterMenu.LETTERS[i] == letter) return i;
-        }
-        return -1;
+        return letter >= 'A' && letter <= 'Z' ? letter - 'A' : -1;
     }
 
     /**
-     * "Return a list of all the indices of the given letter in the word."
-     * 
-     * @param letter The letter that the user guessed.
-     * @return A list of integers.
+     * It computes the letter mask of the word, with a bit for every letter in it, and for every letter
+     * a mask of the positions it's at in the word.
      */
-    private List<Integer> getIndicesOfLetter(char letter) {
-        return IntStream.range(0, this.word.length()).filter(i -> Character.toUpperCase(this.word.charAt(i)) == letter).boxed().collect(Collectors.toList());
+    private void computeWordMasks() {
+        this.wordMask = 0;
+        Arrays.fill(this.positionMasks, 0L);
+        for (int i = 0; i < this.word.length(); i++) {
+            int index = this.indexOf(this.word.charAt(i));
+            if (index == -1) continue;
+            this.wordMask |= 1 << index;
+            this.positionMasks[index] |= 1L << i;
+        }
     }
 
     /**
-     * It sends an action bar to all online players, replacing %PLAYER% with the player's name and
-     * %LETTER% with the letter.
+     * It sends an action bar to the players near the arena, replacing %PLAYER% with the player's name
+     * and %LETTER% with the letter. The message is rendered once and sent to everyone. If
+     * announcements.mergeTicks is set, messages that come in a burst are merged: only the last one of
+     * the window is sent, since every action bar replaces the one before it.
      * 
      * @param key The key in the config.yml file.
      * @param player The player who is sending the message.
      * @param letter The letter that the player guessed.
      */
     private void announce(String key, Player player, char letter) {
-        Bukkit.getOnlinePlayers().forEach(sendToPlayer -> sendToPlayer.sendActionBar(TextUtils.colorize(Main.getInstance().getConfig().getString(key).replace("%PLAYER%", player.getName()).replace("%LETTER%", String.valueOf(letter)))));
+        Component message = Messages.get(key).render("PLAYER", player.getName(), "LETTER", LETTER_STRINGS[this.indexOf(letter)]);
+        if (this.announceMergeTicks <= 0) {
+            this.sendToAudience(message);
+            return;
+        }
+        boolean scheduled = this.pendingAnnouncement != null;
+        this.pendingAnnouncement = message;
+        if (scheduled) return;
+        Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
+            Component pending = this.pendingAnnouncement;
+            this.pendingAnnouncement = null;
+            this.sendToAudience(pending);
+        }, this.announceMergeTicks);
+    }
+
+    /**
+     * It sends an action bar to the players near the arena, or to everyone if the arena has no
+     * announcement radius.
+     *
+     * @param message The message to send.
+     */
+    private void sendToAudience(Component message) {
+        for (Player sendToPlayer : this.audience == null ? Bukkit.getOnlinePlayers() : this.audience.getViewers()) {
+            sendToPlayer.sendActionBar(message);
+        }
     }
 
     /**
@@ -175,20 +252,33 @@ public class HangmanGame implements Listener {
      * @param letter The letter that the player is currently typing.
      */
     private void tellPlayer(Player target, String key, char letter) {
-        target.sendActionBar(TextUtils.colorize(Main.getInstance().getConfig().getString(key).replace("%LETTER%", String.valueOf(letter))));
+        target.sendActionBar(Messages.get(key).renderLetter(this.indexOf(letter), LETTER_STRINGS[this.indexOf(letter)]));
     }
 
     /**
      * If the game is not over, the player can guess, the letter has not been guessed, and the letter
      * is in the word, then register the guess as correct and return true
+     *
+     * The checks and the reveal are bit operations and rejected guesses reuse messages rendered once
+     * per letter. An accepted guess still allocates: the announcement, which names the player, the
+     * journal snapshot, which is handed to the journal thread, the sync entry if the games are
+     * shared, and a participant entry on the first guess of a player in a game.
      * 
-     * @param letterBlock The block that the player clicked on.
      * @param letter The letter that the player guessed.
      * @param player The player who is making the guess.
      * @return A boolean value
      */
-    public boolean makeGuess(Block letterBlock, char letter, Player player) {
-        if (this.hasWon() || this.hasLost()) {
+    public boolean makeGuess(char letter, Player player) {
+        long start = System.nanoTime();
+        try {
+            return this.guess(letter, player);
+        } finally {
+            this.makeGuessTimer.recordSince(start);
+        }
+    }
+
+    private boolean guess(char letter, Player player) {
+        if (this.resetting || this.hasWon() || this.hasLost() || this.indexOf(letter) == -1) {
             return false;
         }
         if (!this.canGuess(player)) {
@@ -199,7 +289,8 @@ public class HangmanGame implements Listener {
             this.tellPlayer(player, "MESSAGE_ALREADY_GUESSED", letter);
             return false;
         }
-        this.guessed[this.indexOf(letter)] = true;
+        this.guessedMask |= 1 << this.indexOf(letter);
+        this.letterMenu.markGuessed(letter);
         if (!this.isInWord(letter)) {
             this.registerWrongGuess(player, letter);
             return false;
@@ -209,7 +300,7 @@ public class HangmanGame implements Listener {
     }
 
     /**
-     * If the player has guessed the right letter, then update the last guess map, show the letter on
+     * If the player has guessed the right letter, then start the cooldowns, show the letter on
      * the board, and if the player has won, then win the game, otherwise announce that the player has
      * guessed the right letter.
      * 
@@ -217,13 +308,20 @@ public class HangmanGame implements Listener {
      * @param letter The letter that the player guessed
      */
     private void registerRightGuess(Player player, char letter) {
-        this.lastGuessMap.put(player, System.currentTimeMillis());
-        this.getIndicesOfLetter(letter).forEach(index -> this.letterBoard.showLetter(this.word, index, true));
+        Main.getInstance().getCooldownService().recordGuess(player.getUniqueId(), this.cooldownSlot);
+        this.recordGuess(player, true);
+        long start = System.nanoTime();
+        for (long positions = this.positionMasks[this.indexOf(letter)]; positions != 0; positions &= positions - 1) {
+            this.letterBoard.showLetter(this.word, Long.numberOfTrailingZeros(positions), true);
+        }
+        this.letterBoard.flush();
+        this.showLetterTimer.recordSince(start);
         if (this.hasWon()) {
             this.winGame(player, letter);
         } else {
             this.announce("MESSAGE_RIGHT_GUESS", player, letter);
         }
+        this.guessChanged();
     }
 
     /**
@@ -235,11 +333,12 @@ public class HangmanGame implements Listener {
      */
     private void winGame(Player player, char letter) {
         this.announce("MESSAGE_GAME_WON", player, letter);
-        Bukkit.getScheduler().runTaskLater(Main.getInstance(), this::reset, GAME_COOLDOWN);
+        this.recordGame(true);
+        Bukkit.getScheduler().runTaskLater(Main.getInstance(), this::resetIfOver, GAME_COOLDOWN);
     }
 
     /**
-     * If the player has guessed wrong, add the current time to the lastGuessMap, increment the
+     * If the player has guessed wrong, start the cooldowns, increment the
      * wrongGuesses counter, and if the wrongGuesses counter is equal to the maxGuesses, fail the game,
      * otherwise announce the wrong guess and build the stage.
      * 
@@ -247,14 +346,16 @@ public class HangmanGame implements Listener {
      * @param letter The letter that the player guessed.
      */
     private void registerWrongGuess(Player player, char letter) {
-        this.lastGuessMap.put(player, System.currentTimeMillis());
+        Main.getInstance().getCooldownService().recordGuess(player.getUniqueId(), this.cooldownSlot);
+        this.recordGuess(player, false);
         this.wrongGuesses++;
         if (this.wrongGuesses == this.maxGuesses) {
             this.failGame(player, letter);
         } else {
             this.announce("MESSAGE_WRONG_GUESS", player, letter);
         }
-        this.buildStage(this.wrongGuesses);
+        this.buildStage(this.wrongGuesses, PlacementPriority.STAGE, null);
+        this.guessChanged();
     }
 
     /**
@@ -265,66 +366,278 @@ public class HangmanGame implements Listener {
      */
     private void failGame(Player player, char letter) {
         this.announce("MESSAGE_GAME_LOST", player, letter);
-        Bukkit.getScheduler().runTaskLater(Main.getInstance(), this::reset, GAME_COOLDOWN);
+        this.recordGame(false);
+        Bukkit.getScheduler().runTaskLater(Main.getInstance(), this::resetIfOver, GAME_COOLDOWN);
+    }
+
+    /**
+     * It counts the guess in the statistics of the player, and remembers the player took part in
+     * this game.
+     *
+     * @param player The player who guessed.
+     * @param correct True if the letter is in the word.
+     */
+    private void recordGuess(Player player, boolean correct) {
+        this.participants.put(player.getUniqueId(), player.getName());
+        Main.getInstance().getPlayerStatsStore().recordGuess(player, correct);
+    }
+
+    /**
+     * It counts the game as won or lost for every player who made a guess in it.
+     *
+     * @param won True if the word was guessed.
+     */
+    private void recordGame(boolean won) {
+        this.participants.forEach((uuid, name) -> Main.getInstance().getPlayerStatsStore().recordGame(uuid, name, won));
+        this.participants.clear();
     }
 
     /**
-     * Get a random word from the word list.
+     * Get a random word that fits the letterboard. Every word is used once before any word is used
+     * again.
      * 
-     * @return A random word from the wordList array.
+     * @return A random word from the word store.
      */
     private String getRandomWord() {
-        return this.wordList.get(new Random().nextInt(this.wordList.size()));
+        return this.wordBag.next();
     }
 
     /**
-     * This function resets the game by resetting the letter board, setting the guessed array to false,
-     * setting the wrong guesses to 0, getting a new random word, and building the stage
+     * It resets the game if it's still won or lost, another server may have started a new game in
+     * the meantime.
+     */
+    private void resetIfOver() {
+        if (this.hasWon() || this.hasLost()) this.reset();
+    }
+
+    /**
+     * This function resets the game by clearing the guessed letters, setting the wrong guesses
+     * to 0, getting a new random word, and building the stage. The letter board is reset once the
+     * stage is built, until then no guesses can be made.
      */
     public void reset() {
-        this.letterBoard.reset();
-        this.guessed = new boolean[LetterMenu.LETTERS.length];
+        this.resetting = true;
+        this.guessedMask = 0;
+        this.participants.clear();
         this.wrongGuesses = 0;
         this.word = this.getRandomWord();
-        this.buildStage(this.wrongGuesses);
+        this.computeWordMasks();
+        this.resetChanged();
+        this.buildStage(this.wrongGuesses, PlacementPriority.RESET, () -> {
+            long start = System.nanoTime();
+            this.showState();
+            this.boardResetTimer.recordSince(start);
+            this.resetting = false;
+        });
+    }
+
+    /**
+     * It starts the game of another server: a new word with the letters that are already guessed in
+     * it. Nothing is sent back to the other servers.
+     *
+     * @param word The word of the game.
+     * @param guessedMask The mask of the guessed letters.
+     * @return False if the word doesn't fit this arena, the game is left alone then.
+     */
+    public boolean applyRemoteWord(String word, int guessedMask) {
+        if (!this.isValidWord(word)) return false;
+        if (!word.equals(this.word)) {
+            this.word = word;
+            this.computeWordMasks();
+        }
+        this.participants.clear();
+        this.guessedMask = 0;
+        this.applyRemoteGuesses(guessedMask, true);
+        return true;
+    }
+
+    /**
+     * It adds the letters that were guessed on another server to this game. The wrong guesses are
+     * counted again from the merged letters, so guesses on two servers in the same tick both count.
+     * Only the stage blocks and letterboard slots that changed are placed. If the letters finish the
+     * game, it counts as won or lost for the players of this server who guessed in it, the players
+     * of the other server are counted there.
+     *
+     * @param guessedMask The letters that were guessed on the other server.
+     * @param force True to show the state even if no new letters were guessed.
+     */
+    public void applyRemoteGuesses(int guessedMask, boolean force) {
+        int merged = this.guessedMask | (guessedMask & ((1 << LetterMenu.LETTERS.length) - 1));
+        if (merged == this.guessedMask && !force) return;
+        boolean wasOver = this.hasWon() || this.hasLost();
+        this.guessedMask = merged;
+        this.wrongGuesses = Math.min(Integer.bitCount(merged & ~this.wordMask), Math.min(this.maxGuesses, this.stages.length - 1));
+        this.saveSnapshot();
+        this.resetting = true;
+        this.buildStage(this.wrongGuesses, PlacementPriority.STAGE, () -> {
+            this.showState();
+            this.resetting = false;
+        });
+        if (!wasOver && (this.hasWon() || this.hasLost())) {
+            this.recordGame(this.hasWon());
+            Bukkit.getScheduler().runTaskLater(Main.getInstance(), this::resetIfOver, GAME_COOLDOWN);
+        }
+    }
+
+    /**
+     * It shows the guessed letters of the word on the letterboard and a question mark for the others,
+     * and marks the guessed letters in the letter menu.
+     */
+    private void showState() {
+        for (int i = 0; i < this.word.length(); i++) {
+            this.letterBoard.showLetter(this.word, i, this.isGuessed(this.word.charAt(i)));
+        }
+        this.letterBoard.flush();
+        this.letterMenu.reset();
+        for (char letter : LetterMenu.LETTERS) {
+            if (this.isGuessed(letter)) this.letterMenu.markGuessed(letter);
+        }
+    }
+
+    /**
+     * Returns true if the word fits the letterboard and only has letters of the letter menu.
+     *
+     * @param word The word to check.
+     * @return A boolean value.
+     */
+    private boolean isValidWord(String word) {
+        return word.length() == this.letterBoard.getLocationVectors().length && word.chars().allMatch(c -> this.indexOf((char) c) != -1);
+    }
+
+    /**
+     * It continues a game from a snapshot of before a restart. Only the blocks of the stage that
+     * differ from the world are placed, and the letterboard shows the guessed letters again once the
+     * stage is built.
+     *
+     * @param snapshot The snapshot to continue from, may be null.
+     * @return True if the game was restored, false if the snapshot can't be used for this arena.
+     */
+    private boolean restore(GameSnapshot snapshot) {
+        if (snapshot == null) return false;
+        String word = snapshot.getWord();
+        if (!this.isValidWord(word)) return false;
+        if (snapshot.getWrongGuesses() < 0 || snapshot.getWrongGuesses() >= this.maxGuesses) return false;
+        this.word = word;
+        this.computeWordMasks();
+        this.guessedMask = snapshot.getGuessedMask() & ((1 << LetterMenu.LETTERS.length) - 1);
+        this.wrongGuesses = snapshot.getWrongGuesses();
+        if (this.hasWon()) return false;
+
+        this.resetting = true;
+        BlockVector stage = this.stages[this.wrongGuesses];
+        this.builtStage = this.wrongGuesses;
+        this.place(this.builtStage, this.stageRenderer == null ? stage.deltaFromWorld() : stage.toDelta(), PlacementPriority.RESET, () -> {
+            this.showState();
+            this.resetting = false;
+        });
+        return true;
+    }
+
+    /**
+     * It writes the current state of the game to the game journal.
+     */
+    private void saveSnapshot() {
+        Main.getInstance().getGameJournal().record(new GameSnapshot(this.name, this.word, this.guessedMask, this.wrongGuesses, System.currentTimeMillis()));
+    }
+
+    /**
+     * It saves the game after a reset on this server, and starts a new game on the other servers if
+     * the games are shared.
+     */
+    private void resetChanged() {
+        this.saveSnapshot();
+        GameSync gameSync = Main.getInstance().getGameSync();
+        if (gameSync != null) gameSync.markReset(this);
+    }
+
+    /**
+     * It saves the game after a guess on this server, and sends it to the other servers if the games
+     * are shared.
+     */
+    private void guessChanged() {
+        this.saveSnapshot();
+        GameSync gameSync = Main.getInstance().getGameSync();
+        if (gameSync != null) gameSync.markGuess(this);
+    }
+
+    public String getWord() {
+        return this.word;
+    }
+
+    public int getGuessedMask() {
+        return this.guessedMask;
     }
 
+
     /**
      * "Build the stage that corresponds to the number of wrong guesses."
      * 
-     * The first thing we do is get the stage that corresponds to the number of wrong guesses. We do
-     * this by getting the stage from the `stages` array
+     * If the previous stage is the one that is currently built, only the blocks that differ from it
+     * are placed. The same goes for going back to the first stage. Otherwise the whole stage is built.
+     * 
+     * The blocks are placed by the placement scheduler, the callback runs once they are all placed.
      * 
      * @param wrongGuesses The number of wrong guesses the player has made.
+     * @param priority The priority of the build.
+     * @param callback Runs once the stage is built, may be null.
      */
-    public void buildStage(int wrongGuesses) {
+    public void buildStage(int wrongGuesses, PlacementPriority priority, Runnable callback) {
         BlockVector stage = this.stages[wrongGuesses];
         if (stage == null) Bukkit.getLogger().log(Level.SEVERE, "Something went wrong!");
-        stage.build();
+        BlockDelta delta;
+        if (this.builtStage >= 0 && this.builtStage == wrongGuesses - 1) {
+            delta = this.nextStageDeltas[this.builtStage];
+        } else if (this.builtStage >= 0 && wrongGuesses == 0) {
+            delta = this.resetDeltas[this.builtStage];
+        } else if (this.builtStage != wrongGuesses) {
+            delta = stage.toDelta();
+        } else {
+            delta = new BlockDelta();
+        }
+        this.builtStage = wrongGuesses;
+        this.place(wrongGuesses, delta, priority, callback);
     }
 
     /**
-     * If the player has not won or lost, and they clicked a letter, open the letter menu
-     * 
-     * @param event The event that was called.
+     * It places the blocks of a delta with the placement scheduler, or when the stages are shown with
+     * fake block changes, sends them to the players near the arena and runs the callback right away.
+     *
+     * @param stage The stage that is built after the delta.
+     * @param delta The blocks to change.
+     * @param priority The priority of the build.
+     * @param callback Runs once the blocks are placed, may be null.
      */
-    @EventHandler
-    public void onClickLetter(PlayerInteractEvent event) {
-        if (event.getAction() != Action.LEFT_CLICK_BLOCK && event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (this.hasWon() || this.hasLost()) return;
-        if (!this.isLetter(event.getClickedBlock())) return;
-        new LetterMenu(this, event.getClickedBlock()).open(event.getPlayer());
-        event.setCancelled(true);
+    private void place(int stage, BlockDelta delta, PlacementPriority priority, Runnable callback) {
+        if (this.stageRenderer != null) {
+            this.stageRenderer.render(stage, delta);
+            if (callback != null) callback.run();
+            return;
+        }
+        Main.getInstance().getPlacementScheduler().schedule(this, delta, this.stages[stage].origin, priority, callback, this.stageBuildTimer);
     }
 
     /**
-     * When a player quits, remove them from the lastGuessMap
+     * If the player has not won or lost, and they clicked a letter, open the letter menu. The arena
+     * registry only calls this for clicks in a chunk of this game's letterboard.
      * 
-     * @param event The event that was fired.
+     * @param event The event that was called.
      */
-    @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        this.lastGuessMap.remove(event.getPlayer());
+    public void onClickLetter(PlayerInteractEvent event) {
+        long start = System.nanoTime();
+        try {
+            this.clickLetter(event);
+        } finally {
+            this.clickTimer.recordSince(start);
+        }
+    }
+
+    private void clickLetter(PlayerInteractEvent event) {
+        if (this.resetting || this.hasWon() || this.hasLost()) return;
+        if (!this.isLetter(event.getClickedBlock())) return;
+        long open = System.nanoTime();
+        this.letterMenu.open(event.getPlayer());
+        this.menuOpenTimer.recordSince(open);
+        event.setCancelled(true);
     }
 
     /**
@@ -365,37 +678,4 @@ public class HangmanGame implements Listener {
             WHITEHEADS.put('?', new String[]{"a8806521-1911-4885-87ac-5a65755364e2", "eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvYmM4ZWExZjUxZjI1M2ZmNTE0MmNhMTFhZTQ1MTkzYTRhZDhjM2FiNWU5YzZlZWM4YmE3YTRmY2I3YmFjNDAifX19"});
         }
     }
-
-    /**
-     * It's a menu that shows all the letters of the alphabet, and when you click on one, it closes the
-     * menu and makes a guess in the game
-     */
-    private static class LetterMenu extends AbstractInventoryMenu {
-
-        private static final char[] LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
-
-        private final HangmanGame game;
-        private final Block block;
-
-        public LetterMenu(HangmanGame game, Block block) {
-            this.game = game;
-            this.block = block;
-        }
-
-        @Override
-        protected List<Button> getButtons() {
-            List<Button> buttons = new ArrayList<>();
-            IntStream.range(0, LetterMenu.LETTERS.length).forEach(i -> {
-                char letter = LetterMenu.LETTERS[i];
-                PlayerProfile profile = Bukkit.createProfile(UUID.fromString(Constants.WHITEHEADS.get(letter)[0]));
-                profile.getProperties().add(new ProfileProperty("textures", Constants.WHITEHEADS.get(letter)[1]));
-                buttons.add(Button.builder().setSlots(i).addAction(ButtonClickType.ANY, p -> {
-                    this.close();
-                    this.game.makeGuess(this.block, letter, p);
-                }).setItem(new ItemBuilder(Material.PLAYER_HEAD).name(String.valueOf(letter)).skull(profile)).build());
-            });
-            buttons.add(Button.builder().setSlots(26).addAction(ButtonClickType.ANY, p -> this.close()).setItem(new ItemBuilder(Material.BARRIER).name("Sluit menu")).build());
-            return buttons;
-        }
-    }
 }
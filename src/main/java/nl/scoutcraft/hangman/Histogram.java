@@ -0,0 +1,105 @@
+package nl.scoutcraft.hangman;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * It's a histogram of durations in nanoseconds with log-linear buckets, like an HDR histogram: every
+ * power of two is split into 16 buckets, so every value is recorded with an error of at most 1/16.
+ * Recording doesn't allocate and may happen from any thread.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final String arena;
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public Histogram(String name, String arena) {
+        this.name = name;
+        this.arena = arena;
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) Math.max(0, value);
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return magnitude * SUB_BUCKETS + (int) ((value >>> (magnitude - 1)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBoundOf(int bucket) {
+        int magnitude = bucket / SUB_BUCKETS;
+        long subBucket = bucket % SUB_BUCKETS;
+        if (magnitude == 0) return subBucket;
+        return ((SUB_BUCKETS | subBucket) << (magnitude - 1)) + (1L << (magnitude - 1)) - 1;
+    }
+
+    /**
+     * It records the time since the given start.
+     *
+     * @param startNanos The value of {@link System#nanoTime()} at the start.
+     */
+    public void recordSince(long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * It records a duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        this.counts.incrementAndGet(bucketOf(nanos));
+        this.count.increment();
+        this.sum.add(nanos);
+        this.max.accumulate(nanos);
+    }
+
+    /**
+     * Returns the value below which the given fraction of the recorded values falls.
+     *
+     * @param quantile The fraction, from 0 to 1.
+     * @return The value in nanoseconds.
+     */
+    public long getQuantile(double quantile) {
+        long total = this.count.sum();
+        if (total == 0) return 0L;
+        long target = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= Math.max(1, target)) return Math.min(upperBoundOf(i), this.max.get());
+        }
+        return this.max.get();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getArena() {
+        return this.arena;
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+}
@@ -2,10 +2,15 @@ package nl.scoutcraft.hangman;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.util.Vector;
 
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * It converts locations, vectors, and block data to strings and vice versa
  */
@@ -13,6 +18,10 @@ public class JsonUtil {
 
     private static final String SEPARATOR = ";";
 
+    private static final ConcurrentHashMap<String, BlockData> BLOCK_DATA_POOL = new ConcurrentHashMap<>();
+    private static final LongAdder BLOCK_DATA_POOL_HITS = new LongAdder();
+    private static final LongAdder BLOCK_DATA_POOL_MISSES = new LongAdder();
+
     /**
      * It takes a location and returns a string that can be used to recreate the location
      * 
@@ -30,14 +39,33 @@ public class JsonUtil {
 
     /**
      * It takes a string, splits it into an array, and then returns a new location with the values from
-     * the array
+     * the array. The world is the world the location was saved in, or else the one set in the config.
      * 
      * @param string The string to convert to a location
      * @return A location
      */
     public static Location stringToLocation(String string) {
+        return stringToLocation(string, null);
+    }
+
+    /**
+     * It takes a string, splits it into an array, and then returns a new location with the values from
+     * the array. The world is the world the location was saved in if it's loaded, or else the given
+     * world, like the world of the arena, and only then the one set in the config.
+     *
+     * @param string The string to convert to a location
+     * @param fallback The world to use if the saved world isn't loaded, may be null.
+     * @return A location
+     */
+    public static Location stringToLocation(String string, World fallback) {
         String[] values = string.split(SEPARATOR);
-        return new Location(Bukkit.getWorld(Main.getInstance().getConfig().getString("world"))
+        World world = Bukkit.getWorld(UUID.fromString(values[0]));
+        if (world == null) world = fallback;
+        if (world == null) {
+            String worldName = Main.getInstance().getConfig().getString("world");
+            world = worldName == null ? null : Bukkit.getWorld(worldName);
+        }
+        return new Location(world
                 , Double.parseDouble(values[1])
                 , Double.parseDouble(values[2])
                 , Double.parseDouble(values[3])
@@ -83,13 +111,45 @@ public class JsonUtil {
     }
 
     /**
-     * It takes a string and returns a BlockData object
+     * It takes a string and returns a BlockData object. Every distinct string is parsed only once, the
+     * same BlockData object is returned for equal strings. The returned object is shared, so it must
+     * not be changed; clone it first.
      * 
      * @param string The string to convert to a BlockData object.
      * @return A BlockData object
      */
     public static BlockData stringToBlockData(String string) {
         if (string.equals("")) return null;
-        return Bukkit.createBlockData(string);
+        BlockData blockData = BLOCK_DATA_POOL.get(string);
+        if (blockData != null) {
+            BLOCK_DATA_POOL_HITS.increment();
+            return blockData;
+        }
+        BLOCK_DATA_POOL_MISSES.increment();
+        return BLOCK_DATA_POOL.computeIfAbsent(string, Bukkit::createBlockData);
+    }
+
+    /**
+     * It returns the shared BlockData object that is equal to the given one, see
+     * {@link #stringToBlockData(String)}.
+     *
+     * @param blockData The BlockData to look up.
+     * @return The shared BlockData object.
+     */
+    public static BlockData internBlockData(BlockData blockData) {
+        if (blockData == null) return null;
+        return stringToBlockData(blockData.getAsString());
+    }
+
+    public static long getBlockDataPoolHits() {
+        return BLOCK_DATA_POOL_HITS.sum();
+    }
+
+    public static long getBlockDataPoolMisses() {
+        return BLOCK_DATA_POOL_MISSES.sum();
+    }
+
+    public static int getBlockDataPoolSize() {
+        return BLOCK_DATA_POOL.size();
     }
 }
@@ -1,7 +1,5 @@
 package nl.scoutcraft.hangman;
 
-import com.destroystokyo.paper.profile.PlayerProfile;
-import com.destroystokyo.paper.profile.ProfileProperty;
 import com.google.gson.JsonObject;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -10,10 +8,6 @@ import org.bukkit.block.Block;
 import org.bukkit.block.Skull;
 import org.bukkit.block.data.BlockData;
 
-import java.util.Arrays;
-import java.util.UUID;
-import java.util.stream.IntStream;
-
 /**
  * It's a LocationVector that has a BlockData that is used to initialize the blocks in the
  * LocationVector
@@ -21,6 +15,9 @@ import java.util.stream.IntStream;
 public class LetterBoard extends LocationVector {
 
     private BlockData letterBlockData;
+    private char[] displayed = new char[0];
+    private char[] pending = new char[0];
+    private boolean flushScheduled;
 
     public LetterBoard(Location origin) throws InstantiationException {
         super(origin);
@@ -37,21 +34,27 @@ public class LetterBoard extends LocationVector {
      * @param blockData The block data that the letter block will be set to.
      */
     public void setLetterBlockData(BlockData blockData) {
-        this.letterBlockData = blockData;
+        this.letterBlockData = JsonUtil.internBlockData(blockData);
     }
 
     /**
      * For each block in the structure, if it's not a player head, set it to the letter block data.
+     * The blocks are placed right away with the configured placement backend.
      */
     public void initializeLetterBlocks() {
+        BlockDelta delta = new BlockDelta();
         super.forEachLocationVectorBlock((b) -> {
             if (b.getType() != Material.PLAYER_HEAD)
-                b.setBlockData(this.letterBlockData);
+                delta.add(b.getX(), b.getY(), b.getZ(), this.letterBlockData);
         });
+        if (delta.isEmpty()) return;
+        PlacementBackend backend = Main.getInstance().getPlacementScheduler().getBackend();
+        backend.place(this.getWorld(), 0, 0, 0, backend.prepare(delta, 0, 0, 0), 0, delta.size());
     }
 
     /**
-     * If the block is null, return false, otherwise return true if the block is in the list of blocks.
+     * If the block is null, return false, otherwise return true if the block is one of the letter
+     * blocks. This uses the index of packed coordinates, so it doesn't allocate.
      * 
      * @param block The block to check
      * @return A boolean value.
@@ -59,38 +62,78 @@ public class LetterBoard extends LocationVector {
     public boolean isLetter(Block block) {
         if (block == null)
             return false;
-        return Arrays.asList(this.getBlocks()).contains(block);
+        return this.indexOf(block) != -1;
     }
 
     /**
-     * It creates a string of spaces the same length as the word, and then calls the showLetter
-     * function on each letter of the word, passing in the string of spaces and the index of the letter
+     * It shows a question mark on every slot of the board.
      */
     public void reset() {
-        String dummy = new String(new char[this.getLocationVectors().length]).replace('\0', ' ');
-        IntStream.range(0, this.getLocationVectors().length).forEach(i -> this.showLetter(dummy, i, false));
+        for (int i = 0; i < this.getLocationVectors().length; i++) {
+            this.queue(i, '?');
+        }
+        this.flush();
     }
 
     /**
-     * It takes a word, an index, and a boolean, and if the boolean is true, it shows the letter at the
-     * index of the word, otherwise it shows a question mark
+     * It queues the letter at the index of the word to be shown, or a question mark if it's hidden.
+     * Queued letters are shown by {@link #flush()}, or at the next tick if nobody flushes them.
      * 
      * @param word The word that the player is trying to guess.
      * @param index The index of the letter in the word.
      * @param show Whether or not to show the letter.
      */
     public void showLetter(String word, int index, boolean show) {
-        Block block = this.getBlocks()[index];
-        if (!(block.getState() instanceof Skull))
+        this.queue(index, show ? word.charAt(index) : '?');
+    }
+
+    private void queue(int index, char glyph) {
+        int slots = this.getLocationVectors().length;
+        if (this.displayed.length != slots) {
+            this.displayed = new char[slots];
+            this.pending = new char[slots];
+        }
+        this.pending[index] = glyph;
+        if (!this.flushScheduled) {
+            this.flushScheduled = true;
+            Bukkit.getScheduler().runTask(Main.getInstance(), this::flush);
+        }
+    }
+
+    /**
+     * It shows every queued letter whose slot doesn't show it yet, in one pass. If a slot has no
+     * skull, the letter blocks are initialized once for the whole batch.
+     */
+    public void flush() {
+        this.flushScheduled = false;
+        int changed = 0;
+        for (int i = 0; i < this.pending.length; i++) {
+            if (this.pending[i] == 0) continue;
+            if (this.pending[i] == this.displayed[i]) this.pending[i] = 0;
+            else changed++;
+        }
+        if (changed == 0) return;
+        Skull[] skulls = new Skull[this.pending.length];
+        boolean missing = false;
+        for (int i = 0; i < this.pending.length; i++) {
+            if (this.pending[i] == 0) continue;
+            if (this.getBlock(i).getState() instanceof Skull skull) skulls[i] = skull;
+            else missing = true;
+        }
+        if (missing) {
             this.initializeLetterBlocks();
-        Skull skullState = (Skull) block.getState();
-        char letter = show ? word.charAt(index) : '?';
-        PlayerProfile profile = Bukkit
-                .createProfile(UUID.fromString(HangmanGame.Constants.WHITEHEADS.get(Character.toUpperCase(letter))[0]));
-        profile.getProperties()
-                .add(new ProfileProperty("textures", HangmanGame.Constants.WHITEHEADS.get(Character.toUpperCase(letter))[1]));
-        skullState.setPlayerProfile(profile);
-        skullState.update();
+            for (int i = 0; i < this.pending.length; i++) {
+                if (this.pending[i] != 0 && skulls[i] == null && this.getBlock(i).getState() instanceof Skull skull)
+                    skulls[i] = skull;
+            }
+        }
+        for (int i = 0; i < this.pending.length; i++) {
+            if (skulls[i] == null) continue;
+            skulls[i].setPlayerProfile(LetterHeads.getProfile(this.pending[i]));
+            skulls[i].update();
+            this.displayed[i] = this.pending[i];
+            this.pending[i] = 0;
+        }
     }
 
     /**
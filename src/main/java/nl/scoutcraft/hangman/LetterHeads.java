@@ -0,0 +1,86 @@
+package nl.scoutcraft.hangman;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.UUID;
+
+/**
+ * It holds the player profile and skull item of every letter head. They are created once when the
+ * plugin is enabled and shared afterwards, so they must not be changed by the callers.
+ */
+public class LetterHeads {
+
+    private static final int DOT = 26;
+    private static final int QUESTION_MARK = 27;
+    private static final int SIZE = 28;
+
+    private static PlayerProfile[] profiles = new PlayerProfile[0];
+    private static ItemStack[] items = new ItemStack[0];
+
+    /**
+     * It creates the profiles and items of all heads in {@link HangmanGame.Constants#WHITEHEADS}. The
+     * texture of every head is put in its profile right away, so the server never has to look a
+     * profile up when a head is shown, not even the first time.
+     */
+    public static void load() {
+        PlayerProfile[] profiles = new PlayerProfile[SIZE];
+        ItemStack[] items = new ItemStack[SIZE];
+        HangmanGame.Constants.WHITEHEADS.forEach((letter, head) -> {
+            int index = indexOf(letter);
+            if (index == -1) return;
+            PlayerProfile profile = Bukkit.createProfile(UUID.fromString(head[0]));
+            profile.getProperties().add(new ProfileProperty("textures", head[1]));
+            ItemStack item = new ItemStack(Material.PLAYER_HEAD);
+            SkullMeta meta = (SkullMeta) item.getItemMeta();
+            meta.setPlayerProfile(profile);
+            meta.displayName(Component.text(letter));
+            item.setItemMeta(meta);
+            profiles[index] = profile;
+            items[index] = item;
+        });
+        LetterHeads.profiles = profiles;
+        LetterHeads.items = items;
+    }
+
+    /**
+     * Returns the offset of the letter in the registry, letters are case insensitive.
+     *
+     * @param letter The letter.
+     * @return The offset, or -1 if there is no head for the letter.
+     */
+    public static int indexOf(char letter) {
+        if (letter >= 'A' && letter <= 'Z') return letter - 'A';
+        if (letter >= 'a' && letter <= 'z') return letter - 'a';
+        if (letter == '.') return DOT;
+        if (letter == '?') return QUESTION_MARK;
+        return -1;
+    }
+
+    /**
+     * Returns the shared profile of the head of a letter, or the question mark if there is none.
+     *
+     * @param letter The letter.
+     * @return The profile.
+     */
+    public static PlayerProfile getProfile(char letter) {
+        int index = indexOf(letter);
+        return profiles[index == -1 ? QUESTION_MARK : index];
+    }
+
+    /**
+     * Returns the shared skull item of a letter, or the question mark if there is none.
+     *
+     * @param letter The letter.
+     * @return The item, clone it before changing it.
+     */
+    public static ItemStack getItem(char letter) {
+        int index = indexOf(letter);
+        return items[index == -1 ? QUESTION_MARK : index];
+    }
+}
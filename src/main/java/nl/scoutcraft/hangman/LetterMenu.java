@@ -0,0 +1,108 @@
+package nl.scoutcraft.hangman;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * It's a menu that shows all the letters of the alphabet, and when you click on one, it closes the
+ * menu and makes a guess in the game. Every game has one menu inventory that is shared by all
+ * players looking at it, letters that are guessed are greyed out in place.
+ */
+public class LetterMenu implements InventoryHolder {
+
+    public static final char[] LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
+    private static final int CLOSE_SLOT = 26;
+
+    private static ItemStack[] guessedItems;
+    private static ItemStack closeItem;
+
+    private final HangmanGame game;
+    private final Inventory inventory;
+
+    public LetterMenu(HangmanGame game) {
+        this.game = game;
+        this.inventory = Bukkit.createInventory(this, 27, Component.text("Kies een letter"));
+        this.reset();
+    }
+
+    /**
+     * It creates the items for guessed letters and the close button once, they are shared by all menus.
+     */
+    private static void createItems() {
+        if (guessedItems != null) return;
+        guessedItems = new ItemStack[LETTERS.length];
+        for (int i = 0; i < LETTERS.length; i++) {
+            guessedItems[i] = createItem(Material.GRAY_STAINED_GLASS_PANE, Component.text(LETTERS[i], NamedTextColor.GRAY, TextDecoration.STRIKETHROUGH));
+        }
+        closeItem = createItem(Material.BARRIER, Component.text("Sluit menu"));
+    }
+
+    private static ItemStack createItem(Material material, Component name) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.displayName(name);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * It puts the head of every letter back in the menu.
+     */
+    public void reset() {
+        createItems();
+        for (int i = 0; i < LETTERS.length; i++) {
+            this.inventory.setItem(i, LetterHeads.getItem(LETTERS[i]));
+        }
+        this.inventory.setItem(CLOSE_SLOT, closeItem);
+    }
+
+    /**
+     * It greys out a letter that has been guessed, for everyone looking at the menu.
+     *
+     * @param letter The letter that was guessed.
+     */
+    public void markGuessed(char letter) {
+        int index = LetterHeads.indexOf(letter);
+        if (index < 0 || index >= LETTERS.length) return;
+        this.inventory.setItem(index, guessedItems[index]);
+    }
+
+    /**
+     * It opens the shared menu for the player.
+     *
+     * @param player The player to open the menu for.
+     */
+    public void open(Player player) {
+        player.openInventory(this.inventory);
+    }
+
+    /**
+     * It handles a click in the menu. A click on a letter closes the menu and makes a guess, a click on
+     * the barrier only closes the menu.
+     *
+     * @param player The player who clicked.
+     * @param slot The slot that was clicked.
+     */
+    public void onClick(Player player, int slot) {
+        if (slot == CLOSE_SLOT) {
+            player.closeInventory();
+        } else if (slot >= 0 && slot < LETTERS.length) {
+            player.closeInventory();
+            this.game.makeGuess(LETTERS[slot], player);
+        }
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return this.inventory;
+    }
+}
@@ -2,12 +2,15 @@ package nl.scoutcraft.hangman;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.util.Vector;
 
 import java.util.Arrays;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.stream.IntStream;
 
 /**
@@ -19,14 +22,21 @@ public class LocationVector {
     private Vector[] locationVectors;
     protected Location origin;
 
+    private World indexWorld;
+    private final LongIntMap blockIndex = new LongIntMap();
+    private final LongIntMap chunkIndex = new LongIntMap();
+    private boolean indexDirty = true;
+
     public LocationVector(Location origin) {
         this.locationVectors = new Vector[0];
         this.origin = origin;
     }
 
     public LocationVector(Location origin, JsonObject jsonObject) {
+        this.origin = origin;
         this.deserialize(jsonObject);
         this.origin = origin;
+        this.indexDirty = true;
     }
 
     /**
@@ -39,12 +49,75 @@ public class LocationVector {
         this.locationVectors = new Vector[this.locationVectors.length + 1];
         System.arraycopy(holder, 0, this.locationVectors, 0, holder.length);
         this.locationVectors[this.locationVectors.length - 1] = new Vector(location.getX() - this.origin.getX(), location.getY() - this.origin.getY(), location.getZ() - this.origin.getZ());
+        this.indexDirty = true;
+    }
+
+    /**
+     * It rebuilds the index of packed block and chunk coordinates of all location vectors.
+     */
+    private void rebuildIndex() {
+        this.blockIndex.clear();
+        this.chunkIndex.clear();
+        this.indexWorld = this.origin.getWorld();
+        for (int i = 0; i < this.locationVectors.length; i++) {
+            int x = (int) Math.floor(this.origin.getX() + this.locationVectors[i].getX());
+            int y = (int) Math.floor(this.origin.getY() + this.locationVectors[i].getY());
+            int z = (int) Math.floor(this.origin.getZ() + this.locationVectors[i].getZ());
+            this.blockIndex.put(Block.getBlockKey(x, y, z), i);
+            this.chunkIndex.put(Chunk.getChunkKey(x >> 4, z >> 4), i);
+        }
+        this.indexDirty = false;
+    }
+
+    /**
+     * Returns the index of the location vector that points to the block, or -1 if none does. Blocks
+     * in another world or in a chunk without any location vector are rejected before the block
+     * lookup. This doesn't allocate anything.
+     *
+     * @param block The block to look up.
+     * @return The index of the location vector, or -1.
+     */
+    public int indexOf(Block block) {
+        if (this.indexDirty) this.rebuildIndex();
+        if (block.getWorld() != this.indexWorld) return -1;
+        int x = block.getX(), z = block.getZ();
+        if (!this.chunkIndex.containsKey(Chunk.getChunkKey(x >> 4, z >> 4))) return -1;
+        return this.blockIndex.get(Block.getBlockKey(x, block.getY(), z));
+    }
+
+    /**
+     * It calls the consumer with the packed key of every chunk that contains a location vector.
+     *
+     * @param consumer The consumer to call.
+     */
+    public void forEachChunkKey(LongConsumer consumer) {
+        for (Vector locationVector : this.locationVectors) {
+            int x = (int) Math.floor(this.origin.getX() + locationVector.getX());
+            int z = (int) Math.floor(this.origin.getZ() + locationVector.getZ());
+            consumer.accept(Chunk.getChunkKey(x >> 4, z >> 4));
+        }
+    }
+
+    public World getWorld() {
+        return this.origin.getWorld();
     }
 
     public Vector[] getLocationVectors() {
         return this.locationVectors;
     }
 
+    /**
+     * Returns the block a location vector points to, without creating any locations.
+     *
+     * @param index The index of the location vector.
+     * @return The block.
+     */
+    public Block getBlock(int index) {
+        Vector locationVector = this.locationVectors[index];
+        return this.origin.getWorld().getBlockAt((int) Math.floor(this.origin.getX() + locationVector.getX()),
+                (int) Math.floor(this.origin.getY() + locationVector.getY()), (int) Math.floor(this.origin.getZ() + locationVector.getZ()));
+    }
+
     /**
      * It returns an array of blocks that are the same as the blocks in the schematic
      * 
@@ -89,9 +162,11 @@ public class LocationVector {
      * @param jsonObject The JsonObject that contains the data to deserialize.
      */
     public void deserialize(JsonObject jsonObject) {
-        this.origin = JsonUtil.stringToLocation(jsonObject.get("origin").getAsString());
+        World fallback = this.origin == null ? null : this.origin.getWorld();
+        this.origin = JsonUtil.stringToLocation(jsonObject.get("origin").getAsString(), fallback);
         JsonArray locationVectorsJsonArray = jsonObject.getAsJsonArray("locationVectors");
         this.locationVectors = new Vector[locationVectorsJsonArray.size()];
         IntStream.range(0, locationVectorsJsonArray.size()).forEach(i -> this.locationVectors[i] = JsonUtil.stringToVector(locationVectorsJsonArray.get(i).getAsString()));
+        this.indexDirty = true;
     }
 }
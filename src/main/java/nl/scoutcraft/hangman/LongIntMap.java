@@ -0,0 +1,103 @@
+package nl.scoutcraft.hangman;
+
+import java.util.Arrays;
+
+/**
+ * It's a small open addressing hash map from primitive longs to primitive ints, so lookups with
+ * packed coordinates don't box or allocate
+ */
+public class LongIntMap {
+
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongIntMap() {
+        this(16);
+    }
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * It spreads the bits of the key, so packed coordinates that only differ in their low bits still
+     * end up in different buckets.
+     *
+     * @param key The key to hash.
+     * @return The hash of the key.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns the value of the key, or -1 if the map doesn't contain the key.
+     *
+     * @param key The key to look up.
+     * @return The value, or -1.
+     */
+    public int get(long key) {
+        int mask = this.keys.length - 1;
+        for (int i = hash(key) & mask; this.used[i]; i = (i + 1) & mask) {
+            if (this.keys[i] == key) return this.values[i];
+        }
+        return MISSING;
+    }
+
+    public boolean containsKey(long key) {
+        return this.get(key) != MISSING;
+    }
+
+    /**
+     * It sets the value of the key, replacing the old value if there was one.
+     *
+     * @param key The key.
+     * @param value The value, must not be negative.
+     */
+    public void put(long key, int value) {
+        if ((this.size + 1) * 2 > this.keys.length) this.grow();
+        int mask = this.keys.length - 1;
+        int i = hash(key) & mask;
+        for (; this.used[i]; i = (i + 1) & mask) {
+            if (this.keys[i] == key) {
+                this.values[i] = value;
+                return;
+            }
+        }
+        this.used[i] = true;
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        Arrays.fill(this.used, false);
+        this.size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+        this.keys = new long[oldKeys.length * 2];
+        this.values = new int[oldKeys.length * 2];
+        this.used = new boolean[oldKeys.length * 2];
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) this.put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
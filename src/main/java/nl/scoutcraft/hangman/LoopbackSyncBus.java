@@ -0,0 +1,34 @@
+package nl.scoutcraft.hangman;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * It's a bus that only reaches other buses in the same JVM, used to try the game sync on one
+ * server without a proxy. Messages are delivered right away on the thread that publishes them.
+ */
+public class LoopbackSyncBus implements GameSyncBus {
+
+    private static final List<LoopbackSyncBus> BUSES = new CopyOnWriteArrayList<>();
+
+    private Consumer<byte[]> receiver;
+
+    @Override
+    public void open(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        BUSES.add(this);
+    }
+
+    @Override
+    public void publish(byte[] message) {
+        for (LoopbackSyncBus bus : BUSES) {
+            if (bus != this) bus.receiver.accept(message);
+        }
+    }
+
+    @Override
+    public void close() {
+        BUSES.remove(this);
+    }
+}
@@ -8,6 +8,7 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -16,18 +17,33 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
 
 public final class Main extends JavaPlugin implements Listener {
 
-    private static final List<HangmanGame> games = new ArrayList<>();
-
     private final HashMap<Player, Location> locationMap = new HashMap<>();
     private final HashMap<Player, BlockVector> blockVectorMap = new HashMap<>();
     private final HashMap<Player, List<Block>> letterBlocksMap = new HashMap<>();
 
+    private MetricsRegistry metricsRegistry;
+    private BlockPlacementScheduler placementScheduler;
+    private CooldownService cooldownService;
+    private GameJournal gameJournal;
+    private Map<String, GameSnapshot> restoredSnapshots;
+    private PlayerStatsStore playerStatsStore;
+    private StructureStore structureStore;
+    private ProximityTracker proximityTracker;
+    private GameSync gameSync;
+    private ArenaRegistry arenaRegistry;
+
     @Override
     public void onLoad() {
         Main.instance = this;
@@ -36,36 +52,260 @@ public final class Main extends JavaPlugin implements Listener {
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        this.migrateStructures();
+        this.structureStore = new StructureStore(new File(this.getDataFolder(), "structures"));
+        this.structureStore.load();
+        this.moveSavedStructures();
+        LetterHeads.load();
+        Messages.load(this.getConfig());
+        this.metricsRegistry = new MetricsRegistry(this.getConfig().getBoolean("metrics.prometheusFile", false) ? new File(this.getDataFolder(), "metrics.prom") : null);
+        if (this.getConfig().getBoolean("metrics.prometheusFile", false)) {
+            long period = 20L * this.getConfig().getLong("metrics.exportSeconds", 15L);
+            this.metricsRegistry.runTaskTimerAsynchronously(this, period, period);
+        }
+        this.placementScheduler = new BlockPlacementScheduler(this.getConfig().getInt("placement.blocksPerTick", 2048), 1000L * this.getConfig().getLong("placement.microsPerTick", 2000L),
+                PlacementBackend.of(this.getConfig().getString("placement.backend", "per-block")), this.metricsRegistry);
+        this.placementScheduler.runTaskTimer(this, 1L, 1L);
+        this.cooldownService = new CooldownService(20L * this.getConfig().getLong("playerCooldown"), 20L * this.getConfig().getLong("guessCooldown"));
+        this.cooldownService.runTaskTimer(this, 1200L, 1200L);
+        this.gameJournal = new GameJournal(new File(this.getDataFolder(), "games.journal"));
+        this.restoredSnapshots = this.gameJournal.load();
+        this.playerStatsStore = new PlayerStatsStore(new File(this.getDataFolder(), "stats.db"), this.getConfig().getInt("statistics.queueSize", 256));
+        this.playerStatsStore.open();
+        this.playerStatsStore.runTaskTimer(this, 100L, 20L * this.getConfig().getLong("statistics.flushSeconds", 5L));
+        Bukkit.getPluginManager().registerEvents(this.playerStatsStore, this);
         Bukkit.getPluginManager().registerEvents(Main.getInstance(), Main.getInstance());
-        try {
-            games.add(new HangmanGame(Bukkit.getWorld(Main.getInstance().getConfig().getString("world")).getBlockAt(Main.getInstance().getConfig().getInt("x"), Main.getInstance().getConfig().getInt("y"), Main.getInstance().getConfig().getInt("z")).getLocation(), 4));
-        } catch (InstantiationException e) {
-            e.printStackTrace();
+        this.proximityTracker = new ProximityTracker();
+        Bukkit.getPluginManager().registerEvents(this.proximityTracker, this);
+        if (this.getConfig().getBoolean("sync.enabled", false)) {
+            String busName = this.getConfig().getString("sync.bus", "bungee");
+            GameSyncBus bus = GameSyncBus.of(busName);
+            if (bus == null) {
+                this.getLogger().warning("Unknown sync.bus " + busName + ", the games are not shared with other servers");
+            } else {
+                this.gameSync = new GameSync(bus, 20L * this.getConfig().getLong("sync.stateSeconds", 30L));
+                this.gameSync.open();
+                this.gameSync.runTaskTimer(this, 1L, 1L);
+                Bukkit.getPluginManager().registerEvents(this.gameSync, this);
+            }
         }
+        this.arenaRegistry = new ArenaRegistry();
+        this.arenaRegistry.load(this.getConfig());
+        Bukkit.getPluginManager().registerEvents(this.arenaRegistry, this);
         getCommand("hangman").setExecutor(this);
     }
-        
+
 
     @Override
     public void onDisable() {
+        if (this.placementScheduler != null) {
+            this.placementScheduler.cancel();
+            this.placementScheduler.flush();
+        }
+        if (this.gameJournal != null) this.gameJournal.close();
+        if (this.structureStore != null) this.structureStore.close();
+        if (this.gameSync != null) {
+            this.gameSync.cancel();
+            this.gameSync.close();
+        }
+        if (this.playerStatsStore != null) {
+            this.playerStatsStore.cancel();
+            this.playerStatsStore.close();
+        }
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
+
+    public BlockPlacementScheduler getPlacementScheduler() {
+        return this.placementScheduler;
+    }
+
+    public CooldownService getCooldownService() {
+        return this.cooldownService;
+    }
+
+    public GameJournal getGameJournal() {
+        return this.gameJournal;
+    }
+
+    /**
+     * Returns the snapshot of an arena that was read from the game journal when the plugin was
+     * enabled, it can only be taken once.
+     *
+     * @param arena The name of the arena.
+     * @return The snapshot, or null if there is none.
+     */
+    public GameSnapshot getRestoredSnapshot(String arena) {
+        return this.restoredSnapshots.remove(arena);
+    }
+
+    public PlayerStatsStore getPlayerStatsStore() {
+        return this.playerStatsStore;
+    }
+
+    public ProximityTracker getProximityTracker() {
+        return this.proximityTracker;
+    }
+
+    /**
+     * Returns the sync that shares the games with the other servers.
+     *
+     * @return The game sync, or null if the games are not shared.
+     */
+    public GameSync getGameSync() {
+        return this.gameSync;
+    }
+
+    public ArenaRegistry getArenaRegistry() {
+        return this.arenaRegistry;
+    }
+
+    public StructureStore getStructureStore() {
+        return this.structureStore;
+    }
+
+    /**
+     * It converts all stages and saved structures that still use the old format, with one block data
+     * string per cell, to the binary structure format and saves the config once if anything changed.
+     */
+    private void migrateStructures() {
+        boolean changed = false;
+        for (String key : this.getConfig().getKeys(true)) {
+            if (this.getConfig().isList(key) && (key.equals("stages") || key.endsWith(".stages"))) {
+                boolean stagesChanged = false;
+                List<String> stages = new ArrayList<>(this.getConfig().getStringList(key));
+                for (int i = 0; i < stages.size(); i++) {
+                    String migrated = this.migrateStructure(stages.get(i));
+                    if (migrated != null) {
+                        stages.set(i, migrated);
+                        stagesChanged = true;
+                    }
+                }
+                if (stagesChanged) {
+                    this.getConfig().set(key, stages);
+                    changed = true;
+                }
+            }
+            if (!this.getConfig().isString(key) || !key.contains(".")) continue;
+            String migrated = this.migrateStructure(this.getConfig().getString(key));
+            if (migrated != null) {
+                this.getConfig().set(key, migrated);
+                changed = true;
+            }
+        }
+        if (changed) {
+            this.getLogger().info("Migrated structures to the binary structure format.");
+            this.saveConfig();
+        }
+    }
+
+    /**
+     * It moves the structures and letterboards that were saved in the config, under the UUID of the
+     * player that saved them, to the structure store and saves the config once if anything moved. A
+     * structure is only removed from the config after its file is written, structures whose name
+     * can't be a file name are left in the config.
+     */
+    private void moveSavedStructures() {
+        boolean changed = false;
+        for (String owner : this.getConfig().getKeys(false)) {
+            ConfigurationSection section = this.getConfig().getConfigurationSection(owner);
+            if (section == null) continue;
+            try {
+                UUID.fromString(owner);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (String name : section.getKeys(false)) {
+                if (!section.isString(name)) continue;
+                // The name becomes part of a file name, so one like ../x could write outside the folder.
+                if (!StructureStore.isValidName(name)) {
+                    this.getLogger().warning("Could not move structure " + owner + "." + name + ", its name is not a valid file name, it stays in the config");
+                    continue;
+                }
+                try {
+                    this.structureStore.putNow(StructureStore.key(owner, name), section.getString(name));
+                } catch (IOException e) {
+                    this.getLogger().log(Level.WARNING, "Could not move structure " + owner + "." + name + ", it stays in the config", e);
+                    continue;
+                }
+                section.set(name, null);
+                changed = true;
+            }
+            if (section.getKeys(false).isEmpty()) this.getConfig().set(owner, null);
+        }
+        if (changed) {
+            this.getLogger().info("Moved saved structures from the config to the structures folder.");
+            this.saveConfig();
+        }
     }
 
     /**
-     * If the command is "reset", reset all games. If the command is "save", save the current structure
-     * or letterboard. If the command is "build", build the structure or letterboard
+     * It converts a serialized structure to the binary structure format.
+     *
+     * @param string The JSON string of the structure.
+     * @return The migrated JSON string, or null if the string is not a structure in the old format.
+     */
+    private String migrateStructure(String string) {
+        // Structures in the binary format have no "blockData" key, they are skipped without parsing.
+        if (string == null || !string.startsWith("{") || !string.contains("\"blockData\"")) return null;
+        JsonObject jsonObject = JsonParser.parseString(string).getAsJsonObject();
+        if (!jsonObject.has("blockData")) return null;
+        return BlockVector.migrate(jsonObject).toString();
+    }
+
+    /**
+     * If the command is "reload", reload the config and its messages. If the command is "reset",
+     * reset all games or the given arena. If the command is "stats", show the statistics of a player. If the command is "metrics",
+     * show the timers of the hot paths. If the command is "save", save
+     * the current structure or letterboard. If the command is "build", build the structure or letterboard
      * 
      * @param sender The CommandSender that sent the command.
      * @param command The command that was executed.
      * @param label The command label.
-     * @param args The arguments passed to the command.
+     * @param args The arguments passed to the command, the first one is the subcommand.
      * @return A boolean
      */
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
         if (!(sender instanceof Player player)) return false;
-        if (label.equalsIgnoreCase("reset")) games.forEach(HangmanGame::reset);
-        if (label.equalsIgnoreCase("save")) {
-            if (args.length != 2) return false;
+        if (args.length < 1) return false;
+        String subCommand = args[0];
+        args = Arrays.copyOfRange(args, 1, args.length);
+        if (subCommand.equalsIgnoreCase("reload")) {
+            this.reloadConfig();
+            Messages.load(this.getConfig());
+        }
+        if (subCommand.equalsIgnoreCase("stats")) {
+            Player target = args.length == 0 ? player : Bukkit.getPlayerExact(args[0]);
+            PlayerStats stats = target == null ? null : this.playerStatsStore.getCached(target.getUniqueId());
+            if (stats == null) {
+                player.sendMessage(Messages.get("MESSAGE_NO_STATS").render("PLAYER", args.length == 0 ? player.getName() : args[0]));
+                return true;
+            }
+            player.sendMessage(Messages.get("MESSAGE_STATS").render("PLAYER", stats.getName(),
+                    "GUESSES", String.valueOf(stats.getGuesses()),
+                    "RATIO", String.valueOf(stats.getCorrectPercentage()),
+                    "WINS", String.valueOf(stats.getWins()),
+                    "LOSSES", String.valueOf(stats.getLosses()),
+                    "GAMES", String.valueOf(stats.getGamesPlayed())));
+        }
+        if (subCommand.equalsIgnoreCase("metrics")) {
+            this.metricsRegistry.report(player);
+        }
+        if (subCommand.equalsIgnoreCase("reset")) {
+            if (args.length == 0) {
+                this.arenaRegistry.getArenas().forEach(HangmanGame::reset);
+            } else {
+                HangmanGame game = this.arenaRegistry.getArena(args[0]);
+                if (game == null) return false;
+                game.reset();
+            }
+        }
+        if (subCommand.equalsIgnoreCase("save")) {
+            if (args.length != 2 || !StructureStore.isValidName(args[1])) return false;
+            String key = StructureStore.key(player.getUniqueId().toString(), args[1]);
             if (args[0].equalsIgnoreCase("letterboard")) {
                 if (!this.blockVectorMap.containsKey(player)) return false;
                 if (!this.letterBlocksMap.containsKey(player) || this.letterBlocksMap.get(player).size() < 1)
@@ -76,26 +316,31 @@ public final class Main extends JavaPlugin implements Listener {
                     LetterBoard letterBoard = new LetterBoard(blockVector.getLocationA());
                     letterBoard.setLetterBlockData(letterBlocks.get(0).getBlockData());
                     letterBlocks.stream().map(Block::getLocation).forEach(letterBoard::addLocationVector);
-                    Main.getInstance().getConfig().set(player.getUniqueId() + "." + args[1], letterBoard.serialize().toString());
+                    this.structureStore.put(key, letterBoard.serialize().toString());
                 } catch (InstantiationException e) {
                     e.printStackTrace();
                 }
             }
             if (args[0].equalsIgnoreCase("structure")) {
                 if (!this.blockVectorMap.containsKey(player)) return false;
-                Main.getInstance().getConfig().set(player.getUniqueId() + "." + args[1], this.blockVectorMap.get(player).serialize().toString());
+                this.structureStore.put(key, this.blockVectorMap.get(player).serialize().toString());
             }
-            Main.getInstance().saveConfig();
         }
-        if (label.equalsIgnoreCase("build")) {
-            if (args.length != 1) return false;
-            if (Main.getInstance().getConfig().contains(player.getUniqueId() + "." + args[0])) {
-                JsonObject jsonObject = JsonParser.parseString(Main.getInstance().getConfig().getString(player.getUniqueId() + "." + args[0])).getAsJsonObject();
-                new BlockVector(player.getLocation(), jsonObject).build();
+        if (subCommand.equalsIgnoreCase("build")) {
+            if (args.length != 1 || !StructureStore.isValidName(args[0])) return false;
+            String key = StructureStore.key(player.getUniqueId().toString(), args[0]);
+            if (this.structureStore.contains(key)) {
+                JsonObject jsonObject = JsonParser.parseString(this.structureStore.get(key)).getAsJsonObject();
+                try {
+                    StructureCodec.Structure structure = BlockVector.readStructure(jsonObject, StructureStore.fileName(key));
+                    new BlockVector(player.getLocation(), jsonObject, structure).build();
+                } catch (IOException e) {
+                    this.getLogger().log(Level.WARNING, "Could not build structure " + key, e);
+                    return false;
+                }
             }
             if (!this.blockVectorMap.containsKey(player)) return false;
-            Main.getInstance().getConfig().set(player.getUniqueId() + "." + args[0], this.blockVectorMap.remove(player).serialize().toString());
-            Main.getInstance().saveConfig();
+            this.structureStore.put(key, this.blockVectorMap.remove(player).serialize().toString());
         }
         return true;
     }
@@ -119,7 +364,7 @@ public final class Main extends JavaPlugin implements Listener {
         } else {
             if (this.locationMap.containsKey(player) && this.locationMap.get(player) != null) {
                 try {
-                    this.blockVectorMap.put(player, new BlockVector(location, this.locationMap.remove(player), player.getLocation()));
+                    BlockVector.capture(location, this.locationMap.remove(player), player.getLocation(), blockVector -> this.blockVectorMap.put(player, blockVector));
                 } catch (InstantiationException e) {
                     e.printStackTrace();
                 }
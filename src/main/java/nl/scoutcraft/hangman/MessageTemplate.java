@@ -0,0 +1,142 @@
+package nl.scoutcraft.hangman;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import nl.scoutcraft.eagle.libs.utils.TextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * It's a message from the config that is colorized and split into text and placeholders like
+ * %PLAYER% once. Every piece of text is turned into a component when the message is loaded, so
+ * rendering it only creates a text component for every placeholder value.
+ */
+public class MessageTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%([A-Z_]+)%");
+    private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.legacySection();
+    // It's put after a piece of text to find the style at its end, even if it ends with a color code.
+    private static final String MARKER = "\u0000";
+
+    private final Component[] segments;
+    private final String[] placeholders;
+    private final Style[] placeholderStyles;
+    private final Component[] letterMessages;
+
+    private MessageTemplate(Component[] segments, String[] placeholders, Style[] placeholderStyles) {
+        this.segments = segments;
+        this.placeholders = placeholders;
+        this.placeholderStyles = placeholderStyles;
+        this.letterMessages = new Component[LetterMenu.LETTERS.length];
+    }
+
+    /**
+     * It colorizes the message, finds its placeholders and turns the text between them into
+     * components. Like in legacy text, a style carries over a placeholder into the text after it, and
+     * a color code resets the decorations.
+     *
+     * @param message The message from the config.
+     * @return The compiled template.
+     */
+    public static MessageTemplate compile(String message) {
+        String colorized = TextUtils.colorize(message == null ? "" : message);
+        List<Component> segments = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        List<Style> placeholderStyles = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(colorized);
+        Style style = Style.empty();
+        int last = 0;
+        while (matcher.find()) {
+            String text = colorized.substring(last, matcher.start());
+            segments.add(compileSegment(text, style));
+            style = styleAtEnd(text, style);
+            placeholders.add(matcher.group(1));
+            placeholderStyles.add(style);
+            last = matcher.end();
+        }
+        segments.add(compileSegment(colorized.substring(last), style));
+        return new MessageTemplate(segments.toArray(new Component[0]), placeholders.toArray(new String[0]), placeholderStyles.toArray(new Style[0]));
+    }
+
+    private static Component compileSegment(String text, Style style) {
+        return Component.text().style(style).append(resetDecorations(SERIALIZER.deserialize(text))).build();
+    }
+
+    /**
+     * Returns the style at the end of a piece of text that starts with the given style.
+     */
+    private static Style styleAtEnd(String text, Style style) {
+        Component component = resetDecorations(SERIALIZER.deserialize(text + MARKER));
+        style = style.merge(component.style());
+        while (!component.children().isEmpty()) {
+            component = component.children().get(component.children().size() - 1);
+            style = style.merge(component.style());
+        }
+        return style;
+    }
+
+    /**
+     * It turns off every decoration that is not set on a component with a color, since a color code
+     * resets the decorations in legacy text.
+     */
+    private static Component resetDecorations(Component component) {
+        if (component.color() != null) {
+            for (TextDecoration decoration : TextDecoration.values()) {
+                if (component.decoration(decoration) == TextDecoration.State.NOT_SET)
+                    component = component.decoration(decoration, false);
+            }
+        }
+        List<Component> children = new ArrayList<>(component.children().size());
+        for (Component child : component.children()) {
+            children.add(resetDecorations(child));
+        }
+        return component.children(children);
+    }
+
+    /**
+     * It fills in the placeholders and returns the message as a component. Placeholders without a
+     * value are left as they are.
+     *
+     * @param values Pairs of a placeholder name, without the % signs, and its value.
+     * @return The message.
+     */
+    public Component render(String... values) {
+        if (this.placeholders.length == 0) return this.segments[0];
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < this.placeholders.length; i++) {
+            builder.append(this.segments[i]).append(Component.text(this.valueOf(this.placeholders[i], values), this.placeholderStyles[i]));
+        }
+        builder.append(this.segments[this.segments.length - 1]);
+        return builder.build();
+    }
+
+    /**
+     * Returns the message with %LETTER% filled in. It's rendered the first time it's asked for a
+     * letter and reused after that, components can't be changed so they can be shared.
+     *
+     * @param index The index of the letter in {@link LetterMenu#LETTERS}.
+     * @param letter The letter as a string.
+     * @return The message.
+     */
+    public Component renderLetter(int index, String letter) {
+        Component message = this.letterMessages[index];
+        if (message == null) {
+            message = this.render("LETTER", letter);
+            this.letterMessages[index] = message;
+        }
+        return message;
+    }
+
+    private String valueOf(String placeholder, String[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (values[i].equals(placeholder)) return values[i + 1];
+        }
+        return "%" + placeholder + "%";
+    }
+}
@@ -0,0 +1,44 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+
+/**
+ * It keeps the compiled templates of all messages in the config
+ */
+public class Messages {
+
+    private static final String PREFIX = "MESSAGE_";
+
+    private static HashMap<String, MessageTemplate> templates = new HashMap<>();
+
+    /**
+     * It compiles every key in the config that starts with "MESSAGE_". It's called again when the
+     * config is reloaded.
+     *
+     * @param config The config to read the messages from.
+     */
+    public static void load(ConfigurationSection config) {
+        HashMap<String, MessageTemplate> templates = new HashMap<>();
+        for (String key : config.getKeys(false)) {
+            if (key.startsWith(PREFIX)) templates.put(key, MessageTemplate.compile(config.getString(key)));
+        }
+        Messages.templates = templates;
+    }
+
+    /**
+     * Returns the template of a message, an empty template if the message is not in the config.
+     *
+     * @param key The key of the message in the config.
+     * @return The template.
+     */
+    public static MessageTemplate get(String key) {
+        MessageTemplate template = templates.get(key);
+        if (template == null) {
+            template = MessageTemplate.compile("");
+            templates.put(key, template);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,115 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * It keeps the timers of the hot paths of the plugin, one histogram per operation and arena. The
+ * timers can be shown with /hangman metrics, and can be written to a file in the Prometheus text
+ * format when this runs as a task.
+ */
+public class MetricsRegistry extends BukkitRunnable {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final ConcurrentHashMap<String, Histogram> histograms;
+    private final File prometheusFile;
+
+    /**
+     * @param prometheusFile The file to write the Prometheus text format to, or null to not write it.
+     */
+    public MetricsRegistry(File prometheusFile) {
+        this.histograms = new ConcurrentHashMap<>();
+        this.prometheusFile = prometheusFile;
+    }
+
+    /**
+     * Returns the histogram of an operation in an arena, creating it if it doesn't exist. Callers
+     * should keep the histogram instead of looking it up on every use.
+     *
+     * @param name The name of the operation, like "make_guess".
+     * @param arena The name of the arena, or "-" for operations that are not tied to one.
+     * @return The histogram.
+     */
+    public Histogram histogram(String name, String arena) {
+        return this.histograms.computeIfAbsent(name + '\0' + arena, k -> new Histogram(name, arena));
+    }
+
+    private List<Histogram> sorted() {
+        List<Histogram> list = new ArrayList<>(this.histograms.values());
+        list.sort(Comparator.comparing(Histogram::getName).thenComparing(Histogram::getArena));
+        return list;
+    }
+
+    /**
+     * It sends a line for every timer with its count, median, 99th percentile and maximum.
+     *
+     * @param sender The one to send the timers to.
+     */
+    public void report(CommandSender sender) {
+        for (Histogram histogram : this.sorted()) {
+            if (histogram.getCount() == 0) continue;
+            sender.sendMessage(String.format(Locale.ROOT, "%s [%s] n=%d p50=%.1fµs p99=%.1fµs max=%.1fµs",
+                    histogram.getName(), histogram.getArena(), histogram.getCount(),
+                    histogram.getQuantile(0.5) / 1000.0, histogram.getQuantile(0.99) / 1000.0, histogram.getMax() / 1000.0));
+        }
+        sender.sendMessage(String.format(Locale.ROOT, "block data pool: size=%d hits=%d misses=%d",
+                JsonUtil.getBlockDataPoolSize(), JsonUtil.getBlockDataPoolHits(), JsonUtil.getBlockDataPoolMisses()));
+    }
+
+    /**
+     * It writes every timer as a Prometheus summary, and the block data pool counters.
+     *
+     * @return The text.
+     */
+    public String toPrometheus() {
+        StringBuilder builder = new StringBuilder();
+        String lastName = null;
+        for (Histogram histogram : this.sorted()) {
+            String metric = "hangman_" + histogram.getName() + "_seconds";
+            if (!metric.equals(lastName)) {
+                builder.append("# TYPE ").append(metric).append(" summary\n");
+                lastName = metric;
+            }
+            String arena = "arena=\"" + histogram.getArena().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+            for (double quantile : QUANTILES) {
+                builder.append(metric).append('{').append(arena).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(histogram.getQuantile(quantile) / 1e9).append('\n');
+            }
+            builder.append(metric).append("_sum{").append(arena).append("} ").append(histogram.getSum() / 1e9).append('\n');
+            builder.append(metric).append("_count{").append(arena).append("} ").append(histogram.getCount()).append('\n');
+        }
+        builder.append("# TYPE hangman_block_data_pool_size gauge\nhangman_block_data_pool_size ").append(JsonUtil.getBlockDataPoolSize()).append('\n');
+        builder.append("# TYPE hangman_block_data_pool_hits_total counter\nhangman_block_data_pool_hits_total ").append(JsonUtil.getBlockDataPoolHits()).append('\n');
+        builder.append("# TYPE hangman_block_data_pool_misses_total counter\nhangman_block_data_pool_misses_total ").append(JsonUtil.getBlockDataPoolMisses()).append('\n');
+        return builder.toString();
+    }
+
+    /**
+     * It writes the Prometheus file, to a temporary file first that is then moved into place. This
+     * runs as an asynchronous task.
+     */
+    @Override
+    public void run() {
+        if (this.prometheusFile == null) return;
+        try {
+            File temp = new File(this.prometheusFile.getParentFile(), this.prometheusFile.getName() + ".tmp");
+            Files.writeString(temp.toPath(), this.toPrometheus(), StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), this.prometheusFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not write the metrics file", e);
+        }
+    }
+}
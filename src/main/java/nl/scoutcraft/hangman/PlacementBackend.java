@@ -0,0 +1,110 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * It's the way blocks of a delta are put in the world. The backend is chosen with placement.backend
+ * in the config, so they can be compared against each other on a live server.
+ */
+public interface PlacementBackend {
+
+    /**
+     * It places a part of a delta, relative to an origin.
+     *
+     * @param world The world to place the blocks in.
+     * @param oX The x coordinate of the origin.
+     * @param oY The y coordinate of the origin.
+     * @param oZ The z coordinate of the origin.
+     * @param delta The blocks to place.
+     * @param from The index of the first block to place.
+     * @param to The index after the last block to place.
+     */
+    void place(World world, int oX, int oY, int oZ, BlockDelta delta, int from, int to);
+
+    /**
+     * Returns the delta in the order this backend places it best, it's called once per build.
+     *
+     * @param delta The blocks to place.
+     * @param oX The x coordinate of the origin.
+     * @param oY The y coordinate of the origin.
+     * @param oZ The z coordinate of the origin.
+     * @return The delta to place instead.
+     */
+    default BlockDelta prepare(BlockDelta delta, int oX, int oY, int oZ) {
+        return delta;
+    }
+
+    /**
+     * Returns the backend with the given name, "per-block" if the name is unknown.
+     *
+     * @param name The name from the config: "per-block", "no-physics" or "section".
+     * @return The backend.
+     */
+    static PlacementBackend of(String name) {
+        if ("no-physics".equalsIgnoreCase(name)) return new NoPhysics();
+        if ("section".equalsIgnoreCase(name)) return new SectionOrdered();
+        return new PerBlock();
+    }
+
+    /**
+     * It sets every block with physics, like a player placing it.
+     */
+    class PerBlock implements PlacementBackend {
+
+        @Override
+        public void place(World world, int oX, int oY, int oZ, BlockDelta delta, int from, int to) {
+            for (int i = from; i < to; i++) {
+                world.getBlockAt(oX + delta.getX(i), oY + delta.getY(i), oZ + delta.getZ(i)).setBlockData(delta.getBlockData(i));
+            }
+        }
+    }
+
+    /**
+     * It sets blocks without physics and leaves blocks alone that already have the right block data.
+     */
+    class NoPhysics implements PlacementBackend {
+
+        @Override
+        public void place(World world, int oX, int oY, int oZ, BlockDelta delta, int from, int to) {
+            for (int i = from; i < to; i++) {
+                Block block = world.getBlockAt(oX + delta.getX(i), oY + delta.getY(i), oZ + delta.getZ(i));
+                BlockData blockData = delta.getBlockData(i);
+                if (!block.getBlockData().equals(blockData)) block.setBlockData(blockData, false);
+            }
+        }
+    }
+
+    /**
+     * It places the blocks of a delta ordered by chunk section, so every chunk is looked up once per
+     * run of blocks in it instead of once per block, without physics and leaving blocks alone that
+     * already have the right block data. Lighting and neighbour updates are still done by the server
+     * per block, the API has no way to queue them per section.
+     */
+    class SectionOrdered implements PlacementBackend {
+
+        @Override
+        public BlockDelta prepare(BlockDelta delta, int oX, int oY, int oZ) {
+            return delta.sortedBySection(oX, oY, oZ);
+        }
+
+        @Override
+        public void place(World world, int oX, int oY, int oZ, BlockDelta delta, int from, int to) {
+            Chunk chunk = null;
+            int chunkX = 0, chunkZ = 0;
+            for (int i = from; i < to; i++) {
+                int x = oX + delta.getX(i), z = oZ + delta.getZ(i);
+                if (chunk == null || x >> 4 != chunkX || z >> 4 != chunkZ) {
+                    chunkX = x >> 4;
+                    chunkZ = z >> 4;
+                    chunk = world.getChunkAt(chunkX, chunkZ);
+                }
+                Block block = chunk.getBlock(x & 15, oY + delta.getY(i), z & 15);
+                BlockData blockData = delta.getBlockData(i);
+                if (!block.getBlockData().equals(blockData)) block.setBlockData(blockData, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package nl.scoutcraft.hangman;
+
+/**
+ * The priority of a placement job. Jobs with a higher priority are placed first.
+ */
+public enum PlacementPriority {
+
+    /** Resetting a game, players are waiting for the new board. */
+    RESET,
+    /** Building the next stage of a running game. */
+    STAGE,
+    /** Any other build, such as an admin building a saved structure. */
+    COSMETIC
+}
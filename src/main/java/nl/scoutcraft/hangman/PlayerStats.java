@@ -0,0 +1,161 @@
+package nl.scoutcraft.hangman;
+
+import java.util.UUID;
+
+/**
+ * It's the statistics of one player. It holds the totals that were stored in the database before
+ * this entry was created, the changes made since then, the part of those changes that was not taken
+ * to be written yet, and the part that is committed. The totals shown to players are the stored
+ * totals plus the changes.
+ */
+public class PlayerStats {
+
+    private final UUID uuid;
+    private String name;
+
+    private long storedGuesses, storedCorrectGuesses, storedWins, storedLosses, storedGamesPlayed;
+    private long guesses, correctGuesses, wins, losses, gamesPlayed;
+    private boolean loaded;
+    private long pendingGuesses, pendingCorrectGuesses, pendingWins, pendingLosses, pendingGamesPlayed;
+    private final long[] committed = new long[5];
+
+    public PlayerStats(UUID uuid, String name) {
+        this.uuid = uuid;
+        this.name = name;
+    }
+
+    public void recordGuess(boolean correct) {
+        this.guesses++;
+        this.pendingGuesses++;
+        if (correct) {
+            this.correctGuesses++;
+            this.pendingCorrectGuesses++;
+        }
+    }
+
+    public void recordGame(boolean won) {
+        this.gamesPlayed++;
+        this.pendingGamesPlayed++;
+        if (won) {
+            this.wins++;
+            this.pendingWins++;
+        } else {
+            this.losses++;
+            this.pendingLosses++;
+        }
+    }
+
+    /**
+     * Returns the changes of this entry that are committed to the database, in the order of
+     * {@link #takePending()}. This is only used on the writer thread.
+     *
+     * @return The committed changes.
+     */
+    public long[] getCommitted() {
+        return this.committed.clone();
+    }
+
+    /**
+     * It counts changes as committed, once the transaction that wrote them succeeded. This is only
+     * used on the writer thread.
+     *
+     * @param change The changes from {@link #takePending()} that were committed.
+     */
+    public void addCommitted(long[] change) {
+        for (int i = 0; i < change.length; i++) {
+            this.committed[i] += change[i];
+        }
+    }
+
+    /**
+     * It sets the totals that were stored in the database before this entry was created. The row
+     * from the database already contains the changes that were written before it was read, those
+     * are taken off so they are not counted twice. This only happens once per entry.
+     *
+     * @param row The stored guesses, correct guesses, wins, losses and games played.
+     * @param written The changes that were committed before the row was read, see {@link #getCommitted()}.
+     */
+    public void setStored(long[] row, long[] written) {
+        if (this.loaded) return;
+        this.loaded = true;
+        this.storedGuesses = row[0] - written[0];
+        this.storedCorrectGuesses = row[1] - written[1];
+        this.storedWins = row[2] - written[2];
+        this.storedLosses = row[3] - written[3];
+        this.storedGamesPlayed = row[4] - written[4];
+    }
+
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    public boolean hasPending() {
+        return this.pendingGuesses != 0 || this.pendingGamesPlayed != 0;
+    }
+
+    /**
+     * It takes the changes since the last write, and clears them.
+     *
+     * @return The changes, as guesses, correct guesses, wins, losses and games played.
+     */
+    public long[] takePending() {
+        long[] pending = {this.pendingGuesses, this.pendingCorrectGuesses, this.pendingWins, this.pendingLosses, this.pendingGamesPlayed};
+        this.pendingGuesses = this.pendingCorrectGuesses = this.pendingWins = this.pendingLosses = this.pendingGamesPlayed = 0;
+        return pending;
+    }
+
+    /**
+     * It puts back changes that could not be written, so they are written the next time.
+     *
+     * @param pending The changes from {@link #takePending()}.
+     */
+    public void restorePending(long[] pending) {
+        this.pendingGuesses += pending[0];
+        this.pendingCorrectGuesses += pending[1];
+        this.pendingWins += pending[2];
+        this.pendingLosses += pending[3];
+        this.pendingGamesPlayed += pending[4];
+    }
+
+    public UUID getUuid() {
+        return this.uuid;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getGuesses() {
+        return this.storedGuesses + this.guesses;
+    }
+
+    public long getCorrectGuesses() {
+        return this.storedCorrectGuesses + this.correctGuesses;
+    }
+
+    /**
+     * Returns the percentage of guesses that were correct.
+     *
+     * @return The percentage, from 0 to 100.
+     */
+    public int getCorrectPercentage() {
+        long guesses = this.getGuesses();
+        return guesses == 0 ? 0 : (int) (100L * this.getCorrectGuesses() / guesses);
+    }
+
+    public long getWins() {
+        return this.storedWins + this.wins;
+    }
+
+    public long getLosses() {
+        return this.storedLosses + this.losses;
+    }
+
+    public long getGamesPlayed() {
+        return this.storedGamesPlayed + this.gamesPlayed;
+    }
+}
@@ -0,0 +1,241 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * It keeps the statistics of players in memory and writes the changes in batches to a SQLite file.
+ * All database work happens on one writer thread with a bounded queue. Guessing only changes the
+ * statistics in memory, so it never waits for the disk. When the queue is full, the changes stay in
+ * memory and are written with the next batch. A batch that can't be written is kept by the writer
+ * and written again together with the next one.
+ */
+public class PlayerStatsStore extends BukkitRunnable implements Listener {
+
+    private final File file;
+    private final ThreadPoolExecutor writer;
+    private final ConcurrentHashMap<UUID, PlayerStats> cache;
+    // The changes of batches that could not be written, only used on the writer thread.
+    private final LinkedHashMap<PlayerStats, long[]> unwritten;
+    private Connection connection;
+
+    public PlayerStatsStore(File file, int queueSize) {
+        this.file = file;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "Hangman statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = new ConcurrentHashMap<>();
+        this.unwritten = new LinkedHashMap<>();
+    }
+
+    /**
+     * It opens the database on the writer thread and creates the table if it doesn't exist.
+     */
+    public void open() {
+        this.writer.execute(() -> {
+            try {
+                this.file.getParentFile().mkdirs();
+                this.connection = DriverManager.getConnection("jdbc:sqlite:" + this.file.getAbsolutePath());
+                try (Statement statement = this.connection.createStatement()) {
+                    statement.executeUpdate("CREATE TABLE IF NOT EXISTS player_stats (uuid TEXT PRIMARY KEY, name TEXT, guesses INTEGER NOT NULL, correct INTEGER NOT NULL, wins INTEGER NOT NULL, losses INTEGER NOT NULL, games INTEGER NOT NULL)");
+                }
+            } catch (SQLException e) {
+                Main.getInstance().getLogger().log(Level.SEVERE, "Could not open the statistics database", e);
+            }
+        });
+        Bukkit.getOnlinePlayers().forEach(this::load);
+    }
+
+    /**
+     * Returns the statistics of a player from the cache, creating them if they aren't there yet.
+     *
+     * @param player The player.
+     * @return The statistics.
+     */
+    public PlayerStats get(Player player) {
+        return this.cache.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerStats(uuid, player.getName()));
+    }
+
+    /**
+     * Returns the cached statistics of a player, or null if they are not in the cache.
+     *
+     * @param uuid The UUID of the player.
+     * @return The statistics, or null.
+     */
+    public PlayerStats getCached(UUID uuid) {
+        return this.cache.get(uuid);
+    }
+
+    public void recordGuess(Player player, boolean correct) {
+        this.get(player).recordGuess(correct);
+    }
+
+    /**
+     * It counts a finished game for a player who made a guess in it.
+     *
+     * @param uuid The UUID of the player.
+     * @param name The name of the player, used if they are not in the cache anymore.
+     * @param won True if the game was won.
+     */
+    public void recordGame(UUID uuid, String name, boolean won) {
+        this.cache.computeIfAbsent(uuid, k -> new PlayerStats(uuid, name)).recordGame(won);
+    }
+
+    /**
+     * It loads the stored statistics of a player who joins into the cache. A player that is still in
+     * the cache from an earlier session already has them.
+     *
+     * @param event The event that was called.
+     */
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        this.load(event.getPlayer());
+    }
+
+    private void load(Player player) {
+        PlayerStats stats = this.get(player);
+        stats.setName(player.getName());
+        if (stats.isLoaded()) return;
+        try {
+            this.writer.execute(() -> {
+                if (this.connection == null) return;
+                try (PreparedStatement statement = this.connection.prepareStatement("SELECT guesses, correct, wins, losses, games FROM player_stats WHERE uuid = ?")) {
+                    statement.setString(1, stats.getUuid().toString());
+                    // Both are read on the writer thread, so the row contains exactly the committed changes.
+                    long[] written = stats.getCommitted();
+                    try (ResultSet result = statement.executeQuery()) {
+                        long[] row = result.next() ? new long[]{result.getLong(1), result.getLong(2), result.getLong(3), result.getLong(4), result.getLong(5)} : written;
+                        if (Main.getInstance().isEnabled())
+                            Bukkit.getScheduler().runTask(Main.getInstance(), () -> stats.setStored(row, written));
+                    }
+                } catch (SQLException e) {
+                    Main.getInstance().getLogger().log(Level.WARNING, "Could not load the statistics of " + stats.getName(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Main.getInstance().getLogger().warning("The statistics queue is full, could not load the statistics of " + stats.getName());
+        }
+    }
+
+    /**
+     * It takes the changes of all players and queues them as one batch for the writer thread. Players
+     * who are offline and have nothing left to write are removed from the cache.
+     */
+    @Override
+    public void run() {
+        List<PlayerStats> players = new ArrayList<>();
+        List<long[]> changes = new ArrayList<>();
+        Iterator<PlayerStats> iterator = this.cache.values().iterator();
+        while (iterator.hasNext()) {
+            PlayerStats stats = iterator.next();
+            if (stats.hasPending()) {
+                players.add(stats);
+                changes.add(stats.takePending());
+            } else if (Bukkit.getPlayer(stats.getUuid()) == null) {
+                iterator.remove();
+            }
+        }
+        if (players.isEmpty()) return;
+        try {
+            this.writer.execute(() -> this.write(players, changes));
+        } catch (RejectedExecutionException e) {
+            for (int i = 0; i < players.size(); i++) {
+                players.get(i).restorePending(changes.get(i));
+            }
+        }
+    }
+
+    /**
+     * It adds the changes, and those of earlier batches that could not be written, to the stored
+     * statistics in one transaction. Changes only count as committed once the transaction is, if it
+     * fails they are kept and written with the next batch. This runs on the writer thread.
+     */
+    private void write(List<PlayerStats> players, List<long[]> changes) {
+        for (int i = 0; i < players.size(); i++) {
+            long[] change = changes.get(i);
+            this.unwritten.merge(players.get(i), change, (a, b) -> {
+                for (int j = 0; j < a.length; j++) {
+                    a[j] += b[j];
+                }
+                return a;
+            });
+        }
+        if (this.connection == null || this.unwritten.isEmpty()) return;
+        try (PreparedStatement statement = this.connection.prepareStatement("INSERT INTO player_stats (uuid, name, guesses, correct, wins, losses, games) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                + "ON CONFLICT(uuid) DO UPDATE SET name = excluded.name, guesses = guesses + excluded.guesses, correct = correct + excluded.correct, "
+                + "wins = wins + excluded.wins, losses = losses + excluded.losses, games = games + excluded.games")) {
+            this.connection.setAutoCommit(false);
+            for (Map.Entry<PlayerStats, long[]> entry : this.unwritten.entrySet()) {
+                long[] change = entry.getValue();
+                statement.setString(1, entry.getKey().getUuid().toString());
+                statement.setString(2, entry.getKey().getName());
+                for (int j = 0; j < change.length; j++) {
+                    statement.setLong(j + 3, change[j]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            this.connection.commit();
+            this.unwritten.forEach(PlayerStats::addCommitted);
+            this.unwritten.clear();
+        } catch (SQLException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not write the statistics of " + this.unwritten.size() + " players, trying again with the next batch", e);
+            try {
+                this.connection.rollback();
+            } catch (SQLException ignored) {
+            }
+        } finally {
+            try {
+                this.connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /**
+     * It writes the last changes and closes the database, waiting a few seconds at most.
+     */
+    public void close() {
+        this.run();
+        // A last try for batches that failed, in case nothing changed since.
+        try {
+            this.writer.execute(() -> this.write(List.of(), List.of()));
+        } catch (RejectedExecutionException ignored) {
+        }
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(5, TimeUnit.SECONDS);
+            if (this.connection != null) this.connection.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not close the statistics database", e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * It keeps track of which players are near an area, like an arena. Areas are indexed by world and
+ * chunk, so a player is only looked up again when they move to another chunk, and the cost of that
+ * doesn't grow with the amount of areas.
+ */
+public class ProximityTracker implements Listener {
+
+    // Ticks to wait after a join, teleport or world change, so the client has the chunks around it
+    // before anything is sent to it.
+    private static final long SETTLE_DELAY = 20L;
+    private static final Area[] NONE = new Area[0];
+
+    private final HashMap<UUID, LongIntMap> chunkIndex;
+    private final List<Area[]> chunkBuckets;
+    private final HashMap<UUID, Area[]> current;
+
+    public ProximityTracker() {
+        this.chunkIndex = new HashMap<>();
+        this.chunkBuckets = new ArrayList<>();
+        this.current = new HashMap<>();
+    }
+
+    /**
+     * It's told when a player comes near an area or goes away from it.
+     */
+    public interface AreaListener {
+
+        void onEnter(Player player);
+
+        void onLeave(Player player);
+    }
+
+    /**
+     * It's a square of chunks around a center chunk, with the players that are in it.
+     */
+    public static class Area {
+
+        private final AreaListener listener;
+        private final LinkedHashSet<Player> viewers;
+
+        private Area(AreaListener listener) {
+            this.listener = listener;
+            this.viewers = new LinkedHashSet<>();
+        }
+
+        /**
+         * Returns the players that are in the area right now.
+         *
+         * @return An unmodifiable view of the players.
+         */
+        public Collection<Player> getViewers() {
+            return Collections.unmodifiableSet(this.viewers);
+        }
+    }
+
+    /**
+     * It starts tracking the players around a location. The players that are already in range are
+     * added right away.
+     *
+     * @param center The center of the area.
+     * @param radius The radius of the area in chunks.
+     * @param listener Is told when players enter or leave the area, may be null.
+     * @return The area.
+     */
+    public Area track(Location center, int radius, AreaListener listener) {
+        Area area = new Area(listener);
+        LongIntMap worldIndex = this.chunkIndex.computeIfAbsent(center.getWorld().getUID(), k -> new LongIntMap());
+        int centerX = center.getBlockX() >> 4, centerZ = center.getBlockZ() >> 4;
+        for (int chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+            for (int chunkZ = centerZ - radius; chunkZ <= centerZ + radius; chunkZ++) {
+                long chunkKey = Chunk.getChunkKey(chunkX, chunkZ);
+                int bucket = worldIndex.get(chunkKey);
+                if (bucket == -1) {
+                    worldIndex.put(chunkKey, this.chunkBuckets.size());
+                    this.chunkBuckets.add(new Area[]{area});
+                    continue;
+                }
+                Area[] areas = Arrays.copyOf(this.chunkBuckets.get(bucket), this.chunkBuckets.get(bucket).length + 1);
+                areas[areas.length - 1] = area;
+                this.chunkBuckets.set(bucket, areas);
+            }
+        }
+        for (Player player : center.getWorld().getPlayers()) {
+            this.update(player, player.getLocation());
+        }
+        return area;
+    }
+
+    private Area[] areasAt(World world, int chunkX, int chunkZ) {
+        LongIntMap worldIndex = this.chunkIndex.get(world.getUID());
+        if (worldIndex == null) return NONE;
+        int bucket = worldIndex.get(Chunk.getChunkKey(chunkX, chunkZ));
+        return bucket == -1 ? NONE : this.chunkBuckets.get(bucket);
+    }
+
+    /**
+     * It moves a player into the areas at a location and out of the areas they are no longer in.
+     *
+     * @param player The player.
+     * @param location The location of the player.
+     */
+    private void update(Player player, Location location) {
+        Area[] before = this.current.getOrDefault(player.getUniqueId(), NONE);
+        Area[] after = this.areasAt(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        if (before == after) return;
+        for (Area area : before) {
+            if (!contains(after, area)) this.leave(player, area);
+        }
+        for (Area area : after) {
+            if (contains(before, area)) continue;
+            area.viewers.add(player);
+            if (area.listener != null) area.listener.onEnter(player);
+        }
+        if (after.length == 0) this.current.remove(player.getUniqueId());
+        else this.current.put(player.getUniqueId(), after);
+    }
+
+    private void leave(Player player, Area area) {
+        area.viewers.remove(player);
+        if (area.listener != null) area.listener.onLeave(player);
+    }
+
+    private static boolean contains(Area[] areas, Area area) {
+        for (Area other : areas) {
+            if (other == area) return true;
+        }
+        return false;
+    }
+
+    private void updateLater(Player player) {
+        Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
+            if (player.isOnline()) this.update(player, player.getLocation());
+        }, SETTLE_DELAY);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        if (event instanceof PlayerTeleportEvent) return;
+        Location from = event.getFrom(), to = event.getTo();
+        if (from.getBlockX() >> 4 == to.getBlockX() >> 4 && from.getBlockZ() >> 4 == to.getBlockZ() >> 4 && from.getWorld() == to.getWorld())
+            return;
+        this.update(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        this.updateLater(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onChangeWorld(PlayerChangedWorldEvent event) {
+        this.updateLater(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        this.updateLater(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        Area[] areas = this.current.remove(event.getPlayer().getUniqueId());
+        if (areas == null) return;
+        for (Area area : areas) {
+            this.leave(event.getPlayer(), area);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package nl.scoutcraft.hangman;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * It shows the stages of a game to the players near it with fake block changes, instead of placing
+ * them in the world. The world is never changed, so nothing gets physics updates or has to be
+ * saved. Players that come near the arena get the whole current stage. The letterboard is not
+ * rendered here, its heads are always placed in the world.
+ */
+public class StageRenderer implements ProximityTracker.AreaListener {
+
+    private final BlockVector[] stages;
+    private final World world;
+    private final int oX, oY, oZ;
+    private final Map<Location, BlockData>[] frames;
+    private ProximityTracker.Area area;
+    private int stage;
+
+    @SuppressWarnings("unchecked")
+    public StageRenderer(BlockVector[] stages, Location origin) {
+        this.stages = stages;
+        this.world = origin.getWorld();
+        this.oX = origin.getBlockX();
+        this.oY = origin.getBlockY();
+        this.oZ = origin.getBlockZ();
+        this.frames = new Map[stages.length];
+        this.stage = -1;
+    }
+
+    /**
+     * It starts showing the stages to the players within the radius of the origin.
+     *
+     * @param tracker The tracker of the players.
+     * @param origin The location of the arena.
+     * @param radius The radius in chunks.
+     */
+    public void track(ProximityTracker tracker, Location origin, int radius) {
+        this.area = tracker.track(origin, radius, this);
+    }
+
+    /**
+     * It sends the changes to go to a stage to every player near the arena.
+     *
+     * @param stage The stage that is shown after the changes.
+     * @param delta The blocks that change.
+     */
+    public void render(int stage, BlockDelta delta) {
+        this.stage = stage;
+        if (this.area == null || this.area.getViewers().isEmpty() || delta.isEmpty()) return;
+        Map<Location, BlockData> changes = this.toChanges(delta);
+        for (Player player : this.area.getViewers()) {
+            player.sendMultiBlockChange(changes, true);
+        }
+    }
+
+    /**
+     * Returns the changes to show a whole stage, they are only made once per stage.
+     *
+     * @param stage The stage.
+     * @return The block changes.
+     */
+    private Map<Location, BlockData> frame(int stage) {
+        if (this.frames[stage] == null) this.frames[stage] = this.toChanges(this.stages[stage].toDelta());
+        return this.frames[stage];
+    }
+
+    private Map<Location, BlockData> toChanges(BlockDelta delta) {
+        Map<Location, BlockData> changes = new HashMap<>(delta.size() * 2);
+        for (int i = 0; i < delta.size(); i++) {
+            changes.put(new Location(this.world, this.oX + delta.getX(i), this.oY + delta.getY(i), this.oZ + delta.getZ(i)), delta.getBlockData(i));
+        }
+        return changes;
+    }
+
+    @Override
+    public void onEnter(Player player) {
+        if (this.stage >= 0) player.sendMultiBlockChange(this.frame(this.stage), true);
+    }
+
+    @Override
+    public void onLeave(Player player) {
+    }
+}
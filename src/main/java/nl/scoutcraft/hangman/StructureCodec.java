@@ -0,0 +1,241 @@
+package nl.scoutcraft.hangman;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * It reads and writes the binary structure format used by BlockVector. A structure is stored as a
+ * palette of block state strings followed by bit-packed palette indices, one per cell.
+ *
+ * Version 1 is the old JSON format, where "blockData" holds one block data string per cell. It has
+ * no binary form, BlockVector reads it and {@link BlockVector#migrate} converts it to this one.
+ *
+ * Layout (version 2):
+ * <pre>
+ * byte     version
+ * varint   sizeX, sizeY, sizeZ
+ * varint   paletteSize
+ *          per entry: varint byteLength, UTF-8 bytes (an empty entry is a cell that is not saved)
+ * byte     bitsPerEntry
+ * long[]   packed indices, 64 / bitsPerEntry entries per long, little end first
+ * </pre>
+ */
+public class StructureCodec {
+
+    public static final int VERSION = 2;
+
+    /**
+     * It's the decoded form of a structure: its size, its palette and one palette index per cell.
+     * It holds no Bukkit objects, so it can be created and read on any thread.
+     */
+    public static class Structure {
+
+        private final int x, y, z;
+        private final String[] palette;
+        private final int[] indices;
+
+        public Structure(int x, int y, int z, String[] palette, int[] indices) {
+            if (indices.length != x * y * z)
+                throw new IllegalArgumentException("Expected " + (x * y * z) + " cells, got " + indices.length);
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.palette = palette;
+            this.indices = indices;
+        }
+
+        public int getX() {
+            return this.x;
+        }
+
+        public int getY() {
+            return this.y;
+        }
+
+        public int getZ() {
+            return this.z;
+        }
+
+        public String[] getPalette() {
+            return this.palette;
+        }
+
+        public int[] getIndices() {
+            return this.indices;
+        }
+    }
+
+    /**
+     * It encodes a structure into the binary format and returns it as a base64 string, so it can be
+     * stored inside the JSON of a BlockVector.
+     *
+     * @param structure The structure to encode.
+     * @return A base64 string of the binary structure.
+     */
+    public static String encode(Structure structure) {
+        return Base64.getEncoder().encodeToString(encodeBytes(structure));
+    }
+
+    /**
+     * It decodes a base64 string that was created by {@link #encode(Structure)}.
+     *
+     * @param string The base64 string to decode.
+     * @param source The file or config entry the structure was read from, for the error message.
+     * @return The decoded structure.
+     * @throws IOException If the string is not a valid structure.
+     */
+    public static Structure decode(String string, String source) throws IOException {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(string);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Structure " + source + " is not valid base64", e);
+        }
+        return decodeBytes(data, source);
+    }
+
+    /**
+     * It writes the structure in the binary format.
+     *
+     * @param structure The structure to write.
+     * @return The bytes of the structure.
+     */
+    public static byte[] encodeBytes(Structure structure) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeVarInt(out, structure.getX());
+            writeVarInt(out, structure.getY());
+            writeVarInt(out, structure.getZ());
+            String[] palette = structure.getPalette();
+            writeVarInt(out, palette.length);
+            for (String entry : palette) {
+                byte[] utf = (entry == null ? "" : entry).getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, utf.length);
+                out.write(utf);
+            }
+            int bits = bitsFor(palette.length);
+            out.writeByte(bits);
+            for (long word : pack(structure.getIndices(), bits)) {
+                out.writeLong(word);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * It reads a structure from the binary format. Everything is checked before it's used, so a
+     * damaged or edited structure is rejected instead of decoded into cells that don't exist.
+     *
+     * @param data The bytes to read.
+     * @param source The file or config entry the structure was read from, for the error message.
+     * @return The decoded structure.
+     * @throws IOException If the bytes are not a valid structure.
+     */
+    public static Structure decodeBytes(byte[] data, String source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION)
+                throw new IOException("Structure " + source + " has unsupported version " + version);
+            int x = readVarInt(in);
+            int y = readVarInt(in);
+            int z = readVarInt(in);
+            // Each factor is below 2^31, so neither product overflows a long.
+            long cells = (long) x * y;
+            if (cells <= Integer.MAX_VALUE) cells *= z;
+            if (x < 0 || y < 0 || z < 0 || cells > Integer.MAX_VALUE)
+                throw new IOException("Structure " + source + " has an invalid size " + x + "x" + y + "x" + z);
+            int paletteSize = readVarInt(in);
+            if (paletteSize < 0 || paletteSize > in.available())
+                throw new IOException("Structure " + source + " has an invalid palette size " + paletteSize);
+            String[] palette = new String[paletteSize];
+            for (int i = 0; i < palette.length; i++) {
+                int length = readVarInt(in);
+                if (length < 0 || length > in.available())
+                    throw new IOException("Structure " + source + " has a palette entry past its end");
+                byte[] utf = new byte[length];
+                in.readFully(utf);
+                palette[i] = utf.length == 0 ? null : new String(utf, StandardCharsets.UTF_8);
+            }
+            int bits = in.readUnsignedByte();
+            if (bits == 0 || bits > 32)
+                throw new IOException("Structure " + source + " has an invalid number of bits per entry " + bits);
+            int packedLength = packedLength((int) cells, bits);
+            if ((long) packedLength * Long.BYTES > in.available())
+                throw new IOException("Structure " + source + " is cut off, expected " + packedLength + " packed longs");
+            long[] packed = new long[packedLength];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = in.readLong();
+            }
+            int[] indices = unpack(packed, bits, (int) cells);
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] >= palette.length)
+                    throw new IOException("Structure " + source + " has palette index " + indices[i] + " at cell " + i + ", the palette has " + palette.length + " entries");
+            }
+            return new Structure(x, y, z, palette, indices);
+        } catch (EOFException e) {
+            throw new IOException("Structure " + source + " is cut off", e);
+        }
+    }
+
+    /**
+     * Returns the number of bits needed to store an index into a palette of the given size.
+     *
+     * @param paletteSize The number of entries in the palette.
+     * @return The bits per entry, at least 1.
+     */
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(0, paletteSize - 1)));
+    }
+
+    private static int packedLength(int cells, int bits) {
+        int perLong = 64 / bits;
+        return (cells + perLong - 1) / perLong;
+    }
+
+    private static long[] pack(int[] indices, int bits) {
+        int perLong = 64 / bits;
+        long[] packed = new long[packedLength(indices.length, bits)];
+        for (int i = 0; i < indices.length; i++) {
+            packed[i / perLong] |= ((long) indices[i]) << ((i % perLong) * bits);
+        }
+        return packed;
+    }
+
+    private static int[] unpack(long[] packed, int bits, int cells) {
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        int[] indices = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            indices[i] = (int) ((packed[i / perLong] >>> ((i % perLong) * bits)) & mask);
+        }
+        return indices;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt is too big");
+    }
+}
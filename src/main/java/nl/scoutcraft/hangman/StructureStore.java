@@ -0,0 +1,153 @@
+package nl.scoutcraft.hangman;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * It keeps the saved structures and letterboards, one JSON file per structure in a directory. All
+ * structures are read when the store is loaded and kept in memory by their key, so a build never
+ * touches the disk. A save writes only its own file, on a separate thread, to a temporary file that
+ * is then moved over the old one, so a crash never leaves half a structure behind.
+ */
+public class StructureStore {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final String EXTENSION = ".json";
+
+    private final File directory;
+    private final ConcurrentHashMap<String, String> structures;
+    private final ExecutorService writer;
+
+    public StructureStore(File directory) {
+        this.directory = directory;
+        this.structures = new ConcurrentHashMap<>();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Hangman structures");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns true if the name can be used for a structure, it becomes part of a file name.
+     *
+     * @param name The name of the structure.
+     * @return A boolean value.
+     */
+    public static boolean isValidName(String name) {
+        return NAME.matcher(name).matches();
+    }
+
+    /**
+     * Returns the key of a structure, the structures of every player are saved separately.
+     *
+     * @param owner The UUID of the player that saved the structure, as a string.
+     * @param name The name of the structure.
+     * @return The key.
+     */
+    public static String key(String owner, String name) {
+        return owner + "." + name;
+    }
+
+    /**
+     * Returns the name of the file of a structure.
+     *
+     * @param key The key of the structure.
+     * @return The file name.
+     */
+    public static String fileName(String key) {
+        return key + EXTENSION;
+    }
+
+    /**
+     * It reads every structure file in the directory into memory.
+     */
+    public void load() {
+        this.directory.mkdirs();
+        File[] files = this.directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) return;
+        for (File file : files) {
+            String key = file.getName().substring(0, file.getName().length() - EXTENSION.length());
+            try {
+                this.structures.put(key, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                Main.getInstance().getLogger().log(Level.WARNING, "Could not read structure " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the JSON of a structure.
+     *
+     * @param key The key of the structure.
+     * @return The JSON string, or null if there is no structure with this key.
+     */
+    public String get(String key) {
+        return this.structures.get(key);
+    }
+
+    public boolean contains(String key) {
+        return this.structures.containsKey(key);
+    }
+
+    /**
+     * It saves a structure, it's available right away and written to its file on the writer thread.
+     *
+     * @param key The key of the structure.
+     * @param json The JSON string of the structure.
+     */
+    public void put(String key, String json) {
+        this.structures.put(key, json);
+        this.writer.execute(() -> this.write(key, json));
+    }
+
+    /**
+     * It saves a structure and writes its file before it returns, used when the structure must be on
+     * disk before anything else happens, like removing it from the config.
+     *
+     * @param key The key of the structure.
+     * @param json The JSON string of the structure.
+     * @throws IOException If the file can't be written, the structure is not saved then.
+     */
+    public void putNow(String key, String json) throws IOException {
+        this.writeFile(key, json);
+        this.structures.put(key, json);
+    }
+
+    private void write(String key, String json) {
+        try {
+            this.writeFile(key, json);
+        } catch (IOException e) {
+            Main.getInstance().getLogger().log(Level.WARNING, "Could not save structure " + key, e);
+        }
+    }
+
+    private void writeFile(String key, String json) throws IOException {
+        this.directory.mkdirs();
+        File file = new File(this.directory, fileName(key));
+        File temp = new File(this.directory, key + EXTENSION + ".tmp");
+        Files.writeString(temp.toPath(), json, StandardCharsets.UTF_8);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * It writes everything that is still queued and stops the writer thread.
+     */
+    public void close() {
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package nl.scoutcraft.hangman;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * It stores the words of an arena, grouped by length. Words are kept in upper case and only words
+ * made of the letters A to Z are kept, other words can't be guessed. Large dictionaries can be
+ * loaded from a word file, which is compiled once into a file that is memory-mapped.
+ *
+ * The compiled file (.hmw) looks like:
+ * <pre>
+ * int      magic "HMWD"
+ * byte     version
+ * int      bucketCount
+ *          per bucket: int wordLength, int wordCount, long offset
+ * byte[]   per bucket: wordCount * wordLength ASCII letters, no separators
+ * </pre>
+ */
+public class WordStore {
+
+    private static final int MAGIC = 0x484D5744;
+    private static final int VERSION = 1;
+    public static final int MAX_LENGTH = 64;
+    private static final ConcurrentHashMap<String, Object> COMPILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Bucket[] buckets;
+    private int rejected;
+
+    private WordStore() {
+        this.buckets = new Bucket[MAX_LENGTH + 1];
+        this.rejected = 0;
+    }
+
+    /**
+     * It creates a word store from a list of words, such as the word list in the config.
+     *
+     * @param words The words.
+     * @return The word store.
+     */
+    public static WordStore of(Collection<String> words) {
+        WordStore store = new WordStore();
+        store.addAll(words);
+        return store;
+    }
+
+    /**
+     * It creates a word store from a list of words and a word file. A text file, with one word per
+     * line, is compiled into a .hmw file next to it if that file is missing or older. A .hmw file is
+     * memory-mapped directly.
+     *
+     * @param words The words from the config, may be empty.
+     * @param file The word file.
+     * @return The word store.
+     * @throws IOException If the file can't be read or compiled.
+     */
+    public static WordStore of(Collection<String> words, File file) throws IOException {
+        WordStore store = of(words);
+        File compiled = file;
+        if (!file.getName().endsWith(".hmw")) {
+            compiled = new File(file.getParentFile(), file.getName().replaceFirst("\\.[^.]*$", "") + ".hmw");
+            // Arenas load in parallel and may share a word file, only one of them compiles it.
+            synchronized (COMPILE_LOCKS.computeIfAbsent(compiled.getCanonicalPath(), k -> new Object())) {
+                if (!compiled.exists() || compiled.lastModified() < file.lastModified()) compile(file, compiled);
+            }
+        }
+        store.map(compiled);
+        return store;
+    }
+
+    /**
+     * Returns the word with only upper case letters, or null if it has characters other than letters
+     * from A to Z, or is too long.
+     *
+     * @param word The word to normalize.
+     * @return The normalized word, or null.
+     */
+    private static String normalize(String word) {
+        String trimmed = word.trim();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_LENGTH) return null;
+        char[] chars = new char[trimmed.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = trimmed.charAt(i);
+            if (c >= 'a' && c <= 'z') c -= 'a' - 'A';
+            if (c < 'A' || c > 'Z') return null;
+            chars[i] = c;
+        }
+        return new String(chars);
+    }
+
+    private void addAll(Collection<String> words) {
+        TreeMap<Integer, LinkedHashSet<String>> byLength = new TreeMap<>();
+        for (String word : words) {
+            String normalized = normalize(word);
+            if (normalized == null) {
+                this.rejected++;
+                continue;
+            }
+            byLength.computeIfAbsent(normalized.length(), k -> new LinkedHashSet<>()).add(normalized);
+        }
+        byLength.forEach((length, set) -> this.buckets[length] = new Bucket(length, set.toArray(new String[0])));
+    }
+
+    /**
+     * It compiles a text file with one word per line into the .hmw format. The file is written to a
+     * unique temporary file next to the target first and then moved into place.
+     *
+     * @param source The text file.
+     * @param target The .hmw file to write.
+     * @throws IOException If the file can't be read or written.
+     */
+    public static void compile(File source, File target) throws IOException {
+        TreeMap<Integer, LinkedHashSet<String>> byLength = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String normalized = normalize(line);
+                if (normalized != null) byLength.computeIfAbsent(normalized.length(), k -> new LinkedHashSet<>()).add(normalized);
+            }
+        }
+        File temp = Files.createTempFile(target.getAbsoluteFile().getParentFile().toPath(), target.getName(), ".tmp").toFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(byLength.size());
+            long offset = 4 + 1 + 4 + (long) byLength.size() * 16;
+            for (var entry : byLength.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                out.writeLong(offset);
+                offset += (long) entry.getKey() * entry.getValue().size();
+            }
+            for (LinkedHashSet<String> set : byLength.values()) {
+                for (String word : set) {
+                    out.write(word.getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * It memory-maps a .hmw file and adds its words to the store. The words of the config with the
+     * same length stay in memory in front of the mapped words, the mapped words are never copied.
+     *
+     * @param file The .hmw file.
+     * @throws IOException If the file can't be read or is not a .hmw file.
+     */
+    private void map(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) throw new IOException(file.getName() + " is not a word file");
+            int bucketCount = buffer.getInt();
+            for (int i = 0; i < bucketCount; i++) {
+                int length = buffer.getInt();
+                int count = buffer.getInt();
+                long offset = buffer.getLong();
+                if (length < 1 || length > MAX_LENGTH) throw new IOException("Invalid word length " + length + " in " + file.getName());
+                String[] words = this.buckets[length] == null ? new String[0] : this.buckets[length].words;
+                this.buckets[length] = new Bucket(length, words, buffer.slice((int) offset, length * count), count);
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of words of the given length.
+     *
+     * @param length The length of the words.
+     * @return The amount of words.
+     */
+    public int count(int length) {
+        if (length < 1 || length > MAX_LENGTH || this.buckets[length] == null) return 0;
+        return this.buckets[length].count;
+    }
+
+    /**
+     * Returns the amount of words that were left out because they had other characters than A to Z.
+     *
+     * @return The amount of words.
+     */
+    public int getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * It creates a shuffle bag that hands out every word of the given length once, in a random order,
+     * before any word is handed out again.
+     *
+     * @param length The length of the words, the amount of letters on the letterboard.
+     * @return The shuffle bag, or null if there are no words of that length.
+     */
+    public ShuffleBag shuffleBag(int length) {
+        if (this.count(length) == 0) return null;
+        return new ShuffleBag(this.buckets[length]);
+    }
+
+    /**
+     * It's the words of one length: the words from the config as strings, followed by the words of a
+     * slice of a memory-mapped file. Index 0 up to the amount of strings are the strings, the rest
+     * are read from the file.
+     */
+    private static class Bucket {
+
+        private final int length;
+        private final int count;
+        private final String[] words;
+        private final ByteBuffer mapped;
+
+        private Bucket(int length, String[] words) {
+            this(length, words, null, 0);
+        }
+
+        private Bucket(int length, String[] words, ByteBuffer mapped, int mappedCount) {
+            this.length = length;
+            this.count = words.length + mappedCount;
+            this.words = words;
+            this.mapped = mapped;
+        }
+
+        private String get(int index) {
+            if (index < this.words.length) return this.words[index];
+            byte[] bytes = new byte[this.length];
+            this.mapped.get((index - this.words.length) * this.length, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * It hands out the words of a bucket in a random order without repeats. Every draw does one step of
+     * a Fisher-Yates shuffle, so a draw is O(1). When every word has been drawn, the next round
+     * starts, and its first word is never the word that was drawn last.
+     */
+    public static class ShuffleBag {
+
+        private final Bucket bucket;
+        private final int[] order;
+        private final Random random;
+        private int position;
+        private int last;
+
+        private ShuffleBag(Bucket bucket) {
+            this.bucket = bucket;
+            this.order = new int[bucket.count];
+            for (int i = 0; i < this.order.length; i++) {
+                this.order[i] = i;
+            }
+            this.random = new Random();
+            this.position = 0;
+            this.last = -1;
+        }
+
+        /**
+         * Returns the next word of the bag.
+         *
+         * @return A word.
+         */
+        public String next() {
+            if (this.position == this.order.length) this.position = 0;
+            int pick = this.position + this.random.nextInt(this.order.length - this.position);
+            if (this.order[pick] == this.last && this.order.length - this.position > 1)
+                pick = pick == this.order.length - 1 ? this.position : pick + 1;
+            int index = this.order[pick];
+            this.order[pick] = this.order[this.position];
+            this.order[this.position] = index;
+            this.position++;
+            this.last = index;
+            return this.bucket.get(index);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package nl.scoutcraft.hangman;
+
+import com.google.gson.JsonObject;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArenaDefinitionTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startExecutor() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    private static String stage(String block) {
+        JsonObject stage = new JsonObject();
+        stage.addProperty("origin", "lobby,0,64,0");
+        stage.addProperty("saveAir", false);
+        stage.addProperty("structure", StructureCodec.encode(new StructureCodec.Structure(1, 1, 2, new String[]{null, block}, new int[]{1, 0})));
+        return stage.toString();
+    }
+
+    private static MemoryConfiguration arena(int stages) {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("world", "lobby");
+        config.set("x", 10);
+        config.set("y", 64);
+        config.set("z", -3);
+        config.set("wordList", List.of("hang", "lobby", "co-op"));
+        config.set("letterBoard", "{\"origin\":\"lobby,0,64,0\",\"locationVectors\":[]}");
+        String[] strings = new String[stages];
+        for (int i = 0; i < stages; i++) {
+            strings[i] = stage("minecraft:stone_" + i);
+        }
+        config.set("stages", List.of(strings));
+        return config;
+    }
+
+    @Test
+    void parsesEveryStageOnTheExecutor() {
+        ArenaDefinition definition = ArenaDefinition.read("default", arena(5)).parse(this.executor).join();
+        assertEquals("lobby", definition.getWorld());
+        assertEquals(10, definition.getX());
+        assertEquals(-3, definition.getZ());
+        assertEquals(4, definition.getMaxGuesses());
+        assertEquals(1, definition.getWordStore().count(4));
+        assertEquals(1, definition.getWordStore().getRejected());
+        assertEquals(5, definition.getStageStructures().length);
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(new String[]{null, "minecraft:stone_" + i}, definition.getStageStructures()[i].getPalette());
+            assertEquals("lobby,0,64,0", definition.getStages()[i].get("origin").getAsString());
+        }
+        assertTrue(definition.getLetterBoard().has("locationVectors"));
+    }
+
+    @Test
+    void readsStagesInTheOldFormat() {
+        MemoryConfiguration config = arena(4);
+        config.set("stages", List.of(stage("minecraft:stone"), stage("minecraft:stone"), stage("minecraft:stone"),
+                "{\"origin\":\"lobby,0,64,0\",\"saveAir\":false,\"x\":1,\"y\":1,\"z\":2,\"blockData\":[\"minecraft:dirt\",\"\"]}"));
+        ArenaDefinition definition = ArenaDefinition.read("default", config).parse(this.executor).join();
+        StructureCodec.Structure legacy = definition.getStageStructures()[3];
+        assertArrayEquals(new String[]{"minecraft:dirt", null}, legacy.getPalette());
+        assertArrayEquals(new int[]{0, 1}, legacy.getIndices());
+    }
+
+    @Test
+    void failsWithoutALetterBoard() {
+        MemoryConfiguration config = arena(4);
+        config.set("letterBoard", null);
+        CompletionException e = assertThrows(CompletionException.class, () -> ArenaDefinition.read("default", config).parse(this.executor).join());
+        assertInstanceOf(InstantiationException.class, e.getCause());
+    }
+
+    @Test
+    void failsWithMoreGuessesThanStages() {
+        MemoryConfiguration config = arena(3);
+        CompletionException e = assertThrows(CompletionException.class, () -> ArenaDefinition.read("default", config).parse(this.executor).join());
+        assertInstanceOf(InstantiationException.class, e.getCause());
+    }
+
+    @Test
+    void namesTheStageThatIsBroken() {
+        MemoryConfiguration config = arena(4);
+        config.set("stages", List.of(stage("minecraft:stone"), stage("minecraft:stone"),
+                "{\"origin\":\"lobby,0,64,0\",\"saveAir\":false,\"structure\":\"AAAA\"}", stage("minecraft:stone")));
+        CompletionException e = assertThrows(CompletionException.class, () -> ArenaDefinition.read("broken", config).parse(this.executor).join());
+        assertInstanceOf(UncheckedIOException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("config.yml broken stage 2"), e.getCause().getMessage());
+    }
+}
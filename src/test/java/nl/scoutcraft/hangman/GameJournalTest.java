@@ -0,0 +1,91 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJournalTest {
+
+    @TempDir
+    File folder;
+
+    private File write(GameSnapshot... snapshots) {
+        File file = new File(this.folder, "journal.bin");
+        GameJournal journal = new GameJournal(file);
+        journal.load();
+        for (GameSnapshot snapshot : snapshots) {
+            journal.record(snapshot);
+        }
+        journal.close();
+        return file;
+    }
+
+    private static Map<String, GameSnapshot> read(File file) {
+        GameJournal journal = new GameJournal(file);
+        Map<String, GameSnapshot> snapshots = journal.load();
+        journal.close();
+        return snapshots;
+    }
+
+    @Test
+    void startsEmptyWithoutAFile() {
+        assertTrue(read(new File(this.folder, "missing.bin")).isEmpty());
+    }
+
+    @Test
+    void restoresTheLastSnapshotOfEveryArena() {
+        File file = this.write(new GameSnapshot("a", "HANGMAN", 0, 0, 1L),
+                new GameSnapshot("b", "LOBBY", 1 << 1, 1, 2L),
+                new GameSnapshot("a", "HANGMAN", 1 << 3 | 1 << 4, 2, 3L));
+        Map<String, GameSnapshot> snapshots = read(file);
+        assertEquals(2, snapshots.size());
+        GameSnapshot a = snapshots.get("a");
+        assertEquals("HANGMAN", a.getWord());
+        assertEquals(1 << 3 | 1 << 4, a.getGuessedMask());
+        assertEquals(2, a.getWrongGuesses());
+        assertEquals(3L, a.getTime());
+        assertEquals("LOBBY", snapshots.get("b").getWord());
+    }
+
+    @Test
+    void compactsToOneRecordPerArena() {
+        GameSnapshot[] snapshots = new GameSnapshot[50];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = new GameSnapshot("a", "HANGMAN", i, 0, i);
+        }
+        File file = this.write(snapshots);
+        long length = file.length();
+        assertEquals(49, read(file).get("a").getGuessedMask());
+        // Loading compacts the journal, the 50 records of the arena become one.
+        assertEquals(length / 50, file.length());
+    }
+
+    @Test
+    void ignoresARecordThatWasOnlyHalfWritten() throws IOException {
+        File file = this.write(new GameSnapshot("a", "HANGMAN", 1, 0, 1L), new GameSnapshot("a", "HANGMAN", 3, 0, 2L));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 5);
+        }
+        assertEquals(1, read(file).get("a").getGuessedMask());
+    }
+
+    @Test
+    void stopsAtARecordWithAWrongChecksum() throws IOException {
+        File file = this.write(new GameSnapshot("a", "HANGMAN", 1, 0, 1L), new GameSnapshot("b", "LOBBY", 3, 0, 2L));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            // The last byte is part of the time of the second record.
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            randomAccessFile.write(0x7f);
+        }
+        Map<String, GameSnapshot> snapshots = read(file);
+        assertEquals(1, snapshots.size());
+        assertTrue(snapshots.containsKey("a"));
+    }
+}
@@ -0,0 +1,64 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameSyncTest {
+
+    @Test
+    void adoptsTheFirstEpoch() {
+        assertEquals(GameSync.Action.ADOPT, GameSync.resolve(null, 1L, 5L));
+    }
+
+    @Test
+    void mergesTheCurrentEpoch() {
+        assertEquals(GameSync.Action.MERGE, GameSync.resolve(new long[]{3L, 5L}, 3L, 5L));
+    }
+
+    @Test
+    void adoptsANewerEpoch() {
+        assertEquals(GameSync.Action.ADOPT, GameSync.resolve(new long[]{3L, 5L}, 4L, 1L));
+        // A tie on the clock is won by the higher node.
+        assertEquals(GameSync.Action.ADOPT, GameSync.resolve(new long[]{3L, 5L}, 3L, 6L));
+    }
+
+    @Test
+    void answersAnOlderEpoch() {
+        assertEquals(GameSync.Action.ANSWER, GameSync.resolve(new long[]{3L, 5L}, 2L, 9L));
+        assertEquals(GameSync.Action.ANSWER, GameSync.resolve(new long[]{3L, 5L}, 3L, 4L));
+    }
+
+    @Test
+    void twoServersAgreeOnTheWinner() {
+        long[] first = {7L, -2L};
+        long[] second = {7L, 3L};
+        // The server on the first epoch takes the second one, the server on the second answers.
+        assertEquals(GameSync.Action.ADOPT, GameSync.resolve(first, second[0], second[1]));
+        assertEquals(GameSync.Action.ANSWER, GameSync.resolve(second, first[0], first[1]));
+    }
+
+    @Test
+    void roundTripsAMessage() throws IOException {
+        GameSync.Message message = new GameSync.Message("default", 12L, -42L, "HANGMAN", 1 << 6 | 1 << 0);
+        assertEquals(message, GameSync.decode(GameSync.encode(message)));
+    }
+
+    @Test
+    void ignoresAnotherVersion() throws IOException {
+        byte[] bytes = GameSync.encode(new GameSync.Message("default", 1L, 1L, "HANGMAN", 0));
+        bytes[0] = 2;
+        assertNull(GameSync.decode(bytes));
+    }
+
+    @Test
+    void rejectsACutOffMessage() {
+        byte[] bytes = GameSync.encode(new GameSync.Message("default", 1L, 1L, "HANGMAN", 0));
+        assertThrows(IOException.class, () -> GameSync.decode(Arrays.copyOf(bytes, bytes.length - 2)));
+    }
+}
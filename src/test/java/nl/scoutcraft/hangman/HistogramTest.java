@@ -0,0 +1,67 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void isEmptyAtFirst() {
+        Histogram histogram = new Histogram("test", "-");
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getQuantile(0.5));
+        assertEquals(0L, histogram.getMax());
+    }
+
+    @Test
+    void recordsSmallValuesExactly() {
+        Histogram histogram = new Histogram("test", "-");
+        for (long value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+        assertEquals(7L, histogram.getQuantile(0.5));
+        assertEquals(15L, histogram.getQuantile(1.0));
+    }
+
+    @Test
+    void quantilesAreWithinOneSixteenth() {
+        Histogram histogram = new Histogram("test", "-");
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000L);
+        }
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long expected = (long) Math.ceil(quantile * 100000) * 1000L;
+            long actual = histogram.getQuantile(quantile);
+            assertTrue(actual >= expected && actual <= expected + expected / 16, quantile + ": " + actual + " for " + expected);
+        }
+        assertEquals(100000L * 1000L, histogram.getQuantile(1.0));
+        assertEquals(100000L * 1000L, histogram.getMax());
+        assertEquals(100000L, histogram.getCount());
+        assertEquals(100000L * 100001L / 2 * 1000L, histogram.getSum());
+    }
+
+    @Test
+    void recordsFromManyThreads() throws InterruptedException {
+        Histogram histogram = new Histogram("test", "-");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i * 4L + offset);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000L, histogram.getCount());
+        assertEquals(39999L, histogram.getMax());
+    }
+}
@@ -0,0 +1,59 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntMapTest {
+
+    @Test
+    void returnsMinusOneForMissingKeys() {
+        LongIntMap map = new LongIntMap();
+        assertEquals(-1, map.get(42L));
+        assertFalse(map.containsKey(42L));
+    }
+
+    @Test
+    void replacesTheValueOfAKey() {
+        LongIntMap map = new LongIntMap();
+        map.put(7L, 1);
+        map.put(7L, 2);
+        assertEquals(2, map.get(7L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void matchesAHashMapWhileGrowing() {
+        LongIntMap map = new LongIntMap(4);
+        HashMap<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1L);
+        for (int i = 0; i < 10000; i++) {
+            // Packed block keys of nearby blocks, which only differ in their low bits, and random keys.
+            long key = i % 2 == 0 ? (i & 0x7FF) | ((long) (i >> 11) << 27) : random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void clearRemovesEveryKey() {
+        LongIntMap map = new LongIntMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertFalse(map.containsKey(i));
+        }
+        map.put(5L, 6);
+        assertTrue(map.containsKey(5L));
+    }
+}
@@ -0,0 +1,53 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void returnsTheSameHistogramForAnOperationInAnArena() {
+        MetricsRegistry registry = new MetricsRegistry(null);
+        assertSame(registry.histogram("make_guess", "a"), registry.histogram("make_guess", "a"));
+        assertTrue(registry.histogram("make_guess", "a") != registry.histogram("make_guess", "b"));
+    }
+
+    @Test
+    void writesEverySummaryOnceWithALineForEveryArena() {
+        MetricsRegistry registry = new MetricsRegistry(null);
+        registry.histogram("make_guess", "b").record(2_000_000_000L);
+        registry.histogram("make_guess", "a").record(1_000_000_000L);
+        registry.histogram("make_guess", "a").record(1_000_000_000L);
+        registry.histogram("click_letter", "a").record(1_000L);
+        String text = registry.toPrometheus();
+
+        assertEquals(1, count(text, "# TYPE hangman_make_guess_seconds summary\n"));
+        assertEquals(1, count(text, "# TYPE hangman_click_letter_seconds summary\n"));
+        assertTrue(text.contains("hangman_make_guess_seconds{arena=\"a\",quantile=\"0.5\"} 1.0"), text);
+        assertTrue(text.contains("hangman_make_guess_seconds_sum{arena=\"a\"} 2.0\n"), text);
+        assertTrue(text.contains("hangman_make_guess_seconds_count{arena=\"a\"} 2\n"), text);
+        assertTrue(text.contains("hangman_make_guess_seconds_count{arena=\"b\"} 1\n"), text);
+        // The timers are sorted by name and arena.
+        assertTrue(text.indexOf("hangman_click_letter") < text.indexOf("hangman_make_guess"));
+        assertTrue(text.indexOf("arena=\"a\",quantile") < text.indexOf("arena=\"b\",quantile"));
+        assertTrue(text.contains("# TYPE hangman_block_data_pool_size gauge\n"));
+    }
+
+    @Test
+    void escapesArenaNames() {
+        MetricsRegistry registry = new MetricsRegistry(null);
+        registry.histogram("make_guess", "a\"b\\c").record(1L);
+        assertTrue(registry.toPrometheus().contains("arena=\"a\\\"b\\\\c\""));
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
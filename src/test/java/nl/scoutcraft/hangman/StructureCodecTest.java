@@ -0,0 +1,112 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StructureCodecTest {
+
+    private static StructureCodec.Structure structure(int x, int y, int z, int paletteSize, long seed) {
+        String[] palette = new String[paletteSize];
+        for (int i = 1; i < paletteSize; i++) {
+            palette[i] = "minecraft:block_" + i + "[facing=north]";
+        }
+        Random random = new Random(seed);
+        int[] indices = new int[x * y * z];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(paletteSize);
+        }
+        return new StructureCodec.Structure(x, y, z, palette, indices);
+    }
+
+    private static void assertSame(StructureCodec.Structure expected, StructureCodec.Structure actual) {
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getZ(), actual.getZ());
+        assertArrayEquals(expected.getPalette(), actual.getPalette());
+        assertArrayEquals(expected.getIndices(), actual.getIndices());
+    }
+
+    @Test
+    void roundTripsEveryPaletteSize() throws IOException {
+        for (int paletteSize : new int[]{1, 2, 3, 17, 300, 70000}) {
+            StructureCodec.Structure structure = structure(5, 7, 3, paletteSize, paletteSize);
+            assertSame(structure, StructureCodec.decode(StructureCodec.encode(structure), "test"));
+        }
+    }
+
+    @Test
+    void keepsCellsThatAreNotSaved() throws IOException {
+        StructureCodec.Structure structure = new StructureCodec.Structure(1, 1, 3, new String[]{null, "minecraft:stone"}, new int[]{0, 1, 0});
+        StructureCodec.Structure decoded = StructureCodec.decodeBytes(StructureCodec.encodeBytes(structure), "test");
+        assertEquals(null, decoded.getPalette()[0]);
+        assertArrayEquals(new int[]{0, 1, 0}, decoded.getIndices());
+    }
+
+    @Test
+    void roundTripsAnEmptyStructure() throws IOException {
+        StructureCodec.Structure structure = new StructureCodec.Structure(0, 0, 0, new String[0], new int[0]);
+        assertSame(structure, StructureCodec.decodeBytes(StructureCodec.encodeBytes(structure), "test"));
+    }
+
+    // A 2x2x2 structure with 3 palette entries has 2 bits per entry, so its cells fit in one long.
+    private static byte[] smallStructure() {
+        return StructureCodec.encodeBytes(new StructureCodec.Structure(2, 2, 2, new String[]{null, "a", "b"}, new int[8]));
+    }
+
+    private static void assertRejected(byte[] data, String message) {
+        IOException e = assertThrows(IOException.class, () -> StructureCodec.decodeBytes(data, "broken.json"));
+        assertTrue(e.getMessage().contains("broken.json"), e.getMessage());
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    @Test
+    void rejectsAnotherVersion() {
+        byte[] data = smallStructure();
+        data[0] = 1;
+        assertRejected(data, "version 1");
+    }
+
+    @Test
+    void rejectsInvalidBitsPerEntry() {
+        byte[] data = smallStructure();
+        data[data.length - Long.BYTES - 1] = 0;
+        assertRejected(data, "bits per entry 0");
+        data[data.length - Long.BYTES - 1] = 33;
+        assertRejected(data, "bits per entry 33");
+    }
+
+    @Test
+    void rejectsPaletteIndicesPastThePalette() {
+        byte[] data = smallStructure();
+        data[data.length - 1] = 3;
+        assertRejected(data, "palette index 3");
+    }
+
+    @Test
+    void rejectsACutOffStructure() {
+        byte[] data = smallStructure();
+        assertRejected(Arrays.copyOf(data, data.length - 3), "cut off");
+        assertRejected(Arrays.copyOf(data, 3), "cut off");
+    }
+
+    @Test
+    void rejectsASizeThatOverflows() {
+        // Version 2, a size of 2^31-1 x 2^31-1 x 2, an empty palette.
+        byte[] data = {2, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07, 2, 0};
+        assertRejected(data, "invalid size");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        IOException e = assertThrows(IOException.class, () -> StructureCodec.decode("not base64!", "broken.json"));
+        assertTrue(e.getMessage().contains("broken.json"));
+    }
+}
@@ -0,0 +1,107 @@
+package nl.scoutcraft.hangman;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordStoreTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    void keepsOnlyWordsOfTheLettersAToZ() {
+        WordStore store = WordStore.of(List.of("hangman", "Lobby", "scout-craft", "café", "", "A".repeat(WordStore.MAX_LENGTH + 1)));
+        assertEquals(1, store.count(7));
+        assertEquals(1, store.count(5));
+        assertEquals(4, store.getRejected());
+        assertEquals("HANGMAN", store.shuffleBag(7).next());
+    }
+
+    @Test
+    void dropsDuplicates() {
+        WordStore store = WordStore.of(List.of("HANGMAN", "hangman", " Hangman "));
+        assertEquals(1, store.count(7));
+    }
+
+    @Test
+    void hasNoShuffleBagWithoutWords() {
+        WordStore store = WordStore.of(List.of("HANGMAN"));
+        assertNull(store.shuffleBag(5));
+        assertEquals(0, store.count(0));
+        assertEquals(0, store.count(WordStore.MAX_LENGTH + 1));
+    }
+
+    @Test
+    void handsOutEveryWordOnceARound() {
+        List<String> words = new ArrayList<>();
+        for (char c = 'A'; c <= 'Z'; c++) {
+            words.add("WORD" + c);
+        }
+        WordStore.ShuffleBag bag = WordStore.of(words).shuffleBag(5);
+        String last = null;
+        for (int round = 0; round < 20; round++) {
+            Set<String> drawn = new HashSet<>();
+            for (int i = 0; i < words.size(); i++) {
+                String word = bag.next();
+                assertNotEquals(last, word);
+                assertTrue(drawn.add(word), word + " was drawn twice in a round");
+                last = word;
+            }
+            assertEquals(new HashSet<>(words), drawn);
+        }
+    }
+
+    @Test
+    void neverRepeatsAWordOfTwo() {
+        WordStore.ShuffleBag bag = WordStore.of(List.of("LOBBY", "SCOUT")).shuffleBag(5);
+        String last = bag.next();
+        for (int i = 0; i < 100; i++) {
+            String word = bag.next();
+            assertNotEquals(last, word);
+            last = word;
+        }
+    }
+
+    @Test
+    void compilesAndMapsAWordFile() throws IOException {
+        File file = new File(this.folder, "words.txt");
+        Files.write(file.toPath(), List.of("hangman", "lobby", "scout", "not a word", "lobby"), StandardCharsets.UTF_8);
+        WordStore store = WordStore.of(List.of("CRAFT"), file);
+        assertTrue(new File(this.folder, "words.hmw").exists());
+        assertEquals(1, store.count(7));
+        assertEquals(3, store.count(5));
+
+        Set<String> drawn = new HashSet<>();
+        WordStore.ShuffleBag bag = store.shuffleBag(5);
+        for (int i = 0; i < 3; i++) {
+            drawn.add(bag.next());
+        }
+        assertEquals(Set.of("CRAFT", "LOBBY", "SCOUT"), drawn);
+
+        // The compiled file is mapped directly the next time.
+        WordStore compiled = WordStore.of(List.of(), new File(this.folder, "words.hmw"));
+        assertEquals(2, compiled.count(5));
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAWordFile() throws IOException {
+        File file = new File(this.folder, "words.hmw");
+        Files.writeString(file.toPath(), "HANGMAN\nLOBBY\n");
+        assertThrows(IOException.class, () -> WordStore.of(List.of(), file));
+    }
+}